@@ -1,6 +1,6 @@
 "use client";
 
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 import { useRouter, useParams } from "next/navigation";
 import {
   Card,
@@ -46,8 +46,13 @@ import {
   Trash2,
 } from "lucide-react";
 import { apiClient } from "@/lib/api";
-import { API_ENDPOINTS } from "@/lib/api";
-import type { EventAttendeeResponse, EventDtoResponse } from "@/lib/types";
+import { API_BASE_URL, API_ENDPOINTS } from "@/lib/api";
+import type {
+  AttendeeRosterChanges,
+  EventAttendeeResponse,
+  EventDtoResponse,
+  StreamTokenResponse,
+} from "@/lib/types";
 
 export default function EventAttendeesPage() {
   const router = useRouter();
@@ -60,7 +65,12 @@ export default function EventAttendeesPage() {
   const [error, setError] = useState<string | null>(null);
   const [bulkCheckoutDialogOpen, setBulkCheckoutDialogOpen] = useState(false);
   const [isBulkCheckingOut, setIsBulkCheckingOut] = useState(false);
-  const [autoRefresh, setAutoRefresh] = useState(true);
+  const [liveUpdates, setLiveUpdates] = useState(true);
+  const [isLive, setIsLive] = useState(false);
+  // attendance_events cursor of the roster shown, for fetching only what changed
+  const cursorRef = useRef<number | null>(null);
+  const changesInFlight = useRef(false);
+  const changesPending = useRef(false);
   const [performingAction, setPerformingAction] = useState<string | null>(null);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
   const [isDeleting, setIsDeleting] = useState(false);
@@ -72,17 +82,52 @@ export default function EventAttendeesPage() {
     }
   }, [eventId]);
 
+  // Live updates: the server pushes a message per committed scan; we then
+  // fetch only the rows that changed. "resync" means we fell behind.
   useEffect(() => {
-    let interval: NodeJS.Timeout;
-    if (autoRefresh) {
-      interval = setInterval(() => {
-        fetchAttendees();
-      }, 10000); // Refresh every 10 seconds
-    }
+    if (!liveUpdates || !eventId) return;
+    let source: EventSource | null = null;
+    let retry: NodeJS.Timeout | null = null;
+    let closed = false;
+
+    const connect = async () => {
+      try {
+        // short-lived and scoped to this stream; a new one for every connect
+        const response = await apiClient.post<StreamTokenResponse>(
+          API_ENDPOINTS.STREAM_TOKEN(parseInt(eventId))
+        );
+        if (closed) return;
+        source = new EventSource(
+          API_BASE_URL +
+            API_ENDPOINTS.EVENT_STREAM(parseInt(eventId), response.data.token)
+        );
+        source.onopen = () => {
+          setIsLive(true);
+          // catch up on whatever happened while disconnected
+          fetchChanges();
+        };
+        source.addEventListener("attendance", () => fetchChanges());
+        source.addEventListener("resync", () => fetchAttendees());
+        source.onerror = () => {
+          // the browser would retry with the same, soon expired, token
+          source?.close();
+          setIsLive(false);
+          if (!closed) retry = setTimeout(connect, 3000);
+        };
+      } catch (err) {
+        console.error("Error opening attendance stream:", err);
+        if (!closed) retry = setTimeout(connect, 3000);
+      }
+    };
+    connect();
+
     return () => {
-      if (interval) clearInterval(interval);
+      closed = true;
+      if (retry) clearTimeout(retry);
+      source?.close();
+      setIsLive(false);
     };
-  }, [autoRefresh, eventId]);
+  }, [liveUpdates, eventId]);
 
   const fetchEventDetails = async () => {
     try {
@@ -100,10 +145,11 @@ export default function EventAttendeesPage() {
       setIsLoading(true);
       setError(null);
 
-      const response = await apiClient.get(
-        API_ENDPOINTS.GET_EVENT_ATTENDEES(parseInt(eventId))
+      const response = await apiClient.get<AttendeeRosterChanges>(
+        API_ENDPOINTS.GET_EVENT_ATTENDEE_CHANGES(parseInt(eventId))
       );
-      setAttendees(response.data);
+      cursorRef.current = response.data.cursor;
+      setAttendees(response.data.attendees);
     } catch (err: any) {
       const errorMessage =
         err.response?.data?.message || "Failed to fetch attendees";
@@ -114,6 +160,42 @@ export default function EventAttendeesPage() {
     }
   };
 
+  // Rows changed since the cursor, merged into the table. Bursts of pushed
+  // messages collapse into one request at a time plus one follow-up.
+  const fetchChanges = async () => {
+    if (cursorRef.current === null) return;
+    if (changesInFlight.current) {
+      changesPending.current = true;
+      return;
+    }
+    changesInFlight.current = true;
+    try {
+      const response = await apiClient.get<AttendeeRosterChanges>(
+        API_ENDPOINTS.GET_EVENT_ATTENDEE_CHANGES(
+          parseInt(eventId),
+          cursorRef.current
+        )
+      );
+      cursorRef.current = response.data.cursor;
+      const changed = new Map(
+        response.data.attendees.map((a) => [a.registrationId, a])
+      );
+      if (changed.size > 0) {
+        setAttendees((current) =>
+          current.map((a) => changed.get(a.registrationId) ?? a)
+        );
+      }
+    } catch (err: any) {
+      console.error("Error fetching attendee changes:", err);
+    } finally {
+      changesInFlight.current = false;
+      if (changesPending.current) {
+        changesPending.current = false;
+        fetchChanges();
+      }
+    }
+  };
+
   const handleBulkCheckout = async () => {
     try {
       setIsBulkCheckingOut(true);
@@ -355,11 +437,15 @@ export default function EventAttendeesPage() {
           <Button
             variant="outline"
             size="sm"
-            onClick={() => setAutoRefresh(!autoRefresh)}
-            className={autoRefresh ? "bg-green-50 border-green-200" : ""}
+            onClick={() => setLiveUpdates(!liveUpdates)}
+            className={isLive ? "bg-green-50 border-green-200" : ""}
           >
             <Clock className="mr-2 h-4 w-4" />
-            {autoRefresh ? "Auto-refresh ON" : "Auto-refresh OFF"}
+            {!liveUpdates
+              ? "Live updates OFF"
+              : isLive
+              ? "Live updates ON"
+              : "Connecting..."}
           </Button>
           <Button
             variant="destructive"
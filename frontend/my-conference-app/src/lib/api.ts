@@ -2,7 +2,7 @@ import axios, { AxiosInstance, AxiosError } from "axios";
 import { ApiError } from "./types";
 
 // API Configuration
-const API_BASE_URL =
+export const API_BASE_URL =
   process.env.NEXT_PUBLIC_API_BASE_URL || "http://192.168.1.32:8080";
 
 // Create axios instance
@@ -77,6 +77,14 @@ export const API_ENDPOINTS = {
   CHECKOUT_ALL: (eventId: number) => `/event/${eventId}/checkoutall`,
   EXPORT_ATTENDEES: (eventId: number) => `/event/${eventId}/export/attendees`,
   GET_EVENT_ATTENDEES: (eventId: number) => `/event/${eventId}/attendees`,
+  GET_EVENT_ATTENDEE_CHANGES: (eventId: number, since?: number) =>
+    since === undefined
+      ? `/event/${eventId}/attendees/changes`
+      : `/event/${eventId}/attendees/changes?since=${since}`,
+  STREAM_TOKEN: (eventId: number) => `/event/${eventId}/stream-token`,
+  // EventSource cannot send the Authorization header, hence the token in the URL
+  EVENT_STREAM: (eventId: number, token: string) =>
+    `/event/${eventId}/stream?token=${encodeURIComponent(token)}`,
 
   // Admin Dashboard
   DASHBOARD_STATS: "/admin/dashboard/stats",
@@ -90,6 +90,18 @@ export interface EventAttendeeResponse {
   lastAction: string;
 }
 
+// GET /event/{id}/attendees/changes: rows changed since the cursor, and the next cursor
+export interface AttendeeRosterChanges {
+  attendees: EventAttendeeResponse[];
+  cursor: number;
+}
+
+// POST /event/{id}/stream-token: opens /event/{id}/stream for a minute
+export interface StreamTokenResponse {
+  token: string;
+  expiresInSeconds: number;
+}
+
 export interface ScanDtoRequest {
   code: string;
   action?: "CHECKIN" | "PAUSE" | "RESUME" | "CHECKOUT";
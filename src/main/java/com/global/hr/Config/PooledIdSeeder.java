@@ -0,0 +1,56 @@
+package com.global.hr.Config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves the users_seq / registrations_seq id blocks past the ids already in
+ * use. Flyway (V7) seeds them in production; with Flyway off and
+ * ddl-auto=update, Hibernate creates the tables itself starting at 1, and the
+ * first signups on an existing database would collide with old ids. Runs once
+ * the schema is in place (after the EntityManagerFactory) and never moves a
+ * sequence backwards, so it is safe on every start.
+ *
+ * Only MySQL needs it: databases with real sequences (H2 in tests) have no
+ * such tables.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PooledIdSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledIdSeeder.class);
+    // sequence table -> table whose ids it hands out
+    private static final List<String[]> SEQUENCES = List.of(
+        new String[] {"users_seq", "users"},
+        new String[] {"registrations_seq", "registrations"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PooledIdSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) return;
+        for (String[] sequence : SEQUENCES) {
+            String seq = sequence[0];
+            String table = sequence[1];
+            // ddl-auto may have created the table without its row
+            jdbcTemplate.update("insert into " + seq + " (next_val) select coalesce(max(id), 0) + 1 from " + table +
+                " where not exists (select 1 from " + seq + ")");
+            int moved = jdbcTemplate.update("update " + seq + " set next_val = (select coalesce(max(id), 0) + 1 from " + table +
+                ") where coalesce(next_val, 0) <= (select coalesce(max(id), 0) from " + table + ")");
+            if (moved > 0) log.info("Moved {} past the highest id in {}", seq, table);
+        }
+    }
+}
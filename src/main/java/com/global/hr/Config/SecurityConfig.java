@@ -60,6 +60,9 @@ public class SecurityConfig {
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/event/**").hasRole("ADMIN")
                 .requestMatchers("/scan/**").hasRole("ADMIN")
+                .requestMatchers("/jobs/**").hasRole("ADMIN")
+                .requestMatchers("/export/**").hasRole("ADMIN")
+                .requestMatchers("/admin/qr-cache/**").hasRole("ADMIN")
                 .requestMatchers("/users/**").hasRole("USER")
                 .requestMatchers("/attendee/**").hasRole("USER")
                 .anyRequest().authenticated()
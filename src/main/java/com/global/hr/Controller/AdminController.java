@@ -1,5 +1,9 @@
 package com.global.hr.Controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,7 +19,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.context.request.WebRequest;
 
 
 import com.global.hr.DTO.AdminDtoRequest;
@@ -26,10 +36,23 @@ import com.global.hr.Entity.Event;
 import com.global.hr.Service.AdminService;
 import com.global.hr.Service.EventService;
 import com.global.hr.Service.AttendanceService;
+import com.global.hr.Service.AttendanceStreamService;
+import com.global.hr.Service.DataVersionService;
+import com.global.hr.Service.OccupancyTracker;
+import com.global.hr.Service.BulkJobService;
+import com.global.hr.Service.QrCodeCache;
+import com.global.hr.Service.BadgeService;
+import com.global.hr.Service.RegistrationImportService;
+import com.global.hr.DTO.RegistrationImportResponse;
+import com.global.hr.DTO.QrCacheStatsResponse;
+import com.global.hr.DTO.OccupancyResponse;
 import com.global.hr.DTO.BulkCheckoutResponse;
 import com.global.hr.Service.ExportService;
-import com.global.hr.DTO.AttendeeExportResponse;
 import com.global.hr.DTO.EventAttendeeResponse;
+import com.global.hr.DTO.AttendeeRosterPage;
+import com.global.hr.DTO.AttendeeRosterChanges;
+import com.global.hr.DTO.StreamTokenResponse;
+import com.global.hr.security.JwtUtils;
 
 @RestController
 //@RequestMapping("/auth")
@@ -39,14 +62,33 @@ public class AdminController {
 	private final AdminService adminService;
 	private final AttendanceService attendanceService;
 	private final ExportService exportService;
+	private final AttendanceStreamService attendanceStreamService;
+	private final DataVersionService dataVersionService;
+	private final OccupancyTracker occupancyTracker;
+	private final BulkJobService bulkJobService;
+	private final QrCodeCache qrCodeCache;
+	private final BadgeService badgeService;
+	private final RegistrationImportService registrationImportService;
+	private final JwtUtils jwtUtils;
 
     
-	public AdminController(EventService eventService,AdminService adminService,AttendanceService attendanceService,ExportService exportService) {
+	public AdminController(EventService eventService,AdminService adminService,AttendanceService attendanceService,ExportService exportService,
+			AttendanceStreamService attendanceStreamService, DataVersionService dataVersionService,
+			OccupancyTracker occupancyTracker, BulkJobService bulkJobService, QrCodeCache qrCodeCache,
+			BadgeService badgeService, RegistrationImportService registrationImportService, JwtUtils jwtUtils) {
 		super();
 		this.eventService = eventService;
 		this.adminService=adminService;
 		this.attendanceService=attendanceService;
 		this.exportService=exportService;
+		this.attendanceStreamService=attendanceStreamService;
+		this.dataVersionService=dataVersionService;
+		this.occupancyTracker=occupancyTracker;
+		this.bulkJobService=bulkJobService;
+		this.qrCodeCache=qrCodeCache;
+		this.badgeService=badgeService;
+		this.registrationImportService=registrationImportService;
+		this.jwtUtils=jwtUtils;
 	}
 	 @PostMapping("/auth/register")
 	    public ResponseEntity<AdminDtoResponse> register(@RequestBody AdminDtoRequest dto) {
@@ -61,8 +103,13 @@ public class AdminController {
     }
 
     @GetMapping("/event/showevents")
-    public ResponseEntity<List<EventDtoResponse>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<List<EventDtoResponse>> getAllEvents(WebRequest request) {
+        // tag is read before the data so a concurrent change yields a stale tag, never stale data
+        String etag = dataVersionService.eventsTag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(eventService.getAllEvents());
     }
 
     @GetMapping("/event/getevent/{id}")
@@ -77,40 +124,155 @@ public class AdminController {
         return ResponseEntity.ok(updated);
     }
 
+    // async=true runs the deletion as a background job; poll GET /jobs/{id}
     @DeleteMapping("/event/deleteevent/{id}")
-    public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {	
+    public ResponseEntity<?> deleteEvent(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean async) {
+    	if (async) {
+    		return ResponseEntity.accepted().body(bulkJobService.submitDeleteEvent(id));
+    	}
     	 eventService.deleteEvent(id);
     	    return ResponseEntity.noContent().build();
     }
 
+    // async=true runs the checkout as a background job; poll GET /jobs/{id}
     @PostMapping("/event/{eventId}/checkoutall")
-    public ResponseEntity<BulkCheckoutResponse> checkoutAllAttendees(@PathVariable Long eventId) {
+    public ResponseEntity<?> checkoutAllAttendees(@PathVariable Long eventId,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return ResponseEntity.accepted().body(bulkJobService.submitCheckoutAll(eventId));
+        }
         BulkCheckoutResponse response = attendanceService.checkoutAllAttendeesForEvent(eventId);
         return ResponseEntity.ok(response);
     }
 
 	@GetMapping(value = "/event/{eventId}/export/attendees", produces = "text/csv")
-    public ResponseEntity<String> exportAttendeesCSV(@PathVariable Long eventId) {
-        AttendeeExportResponse response = exportService.exportAttendeesForEvent(eventId);
+    public ResponseEntity<StreamingResponseBody> exportAttendeesCSV(@PathVariable Long eventId) {
+        // resolved up front so an unknown event is an error response, not a broken download
+        String filename = exportService.exportFilename(eventId);
+        StreamingResponseBody body = out -> exportService.streamAttendeesCsv(eventId, out);
         
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + response.getFilename() + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(response.getCsvContent());
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .body(body);
+    }
+
+    // POST /event/{eventId}/registrations/import (multipart "file": CSV with email,name,password) -> outcome per row
+    @PostMapping(value = "/event/{eventId}/registrations/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<RegistrationImportResponse> importRegistrations(@PathVariable Long eventId,
+                                                                          @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(registrationImportService.importCsv(eventId, reader));
+        }
+    }
+
+    // GET /event/{eventId}/badges?format=zip|svg&columns=4 -> ZIP of badge PNGs, or one SVG sheet of badges
+    @GetMapping("/event/{eventId}/badges")
+    public ResponseEntity<StreamingResponseBody> getBadges(@PathVariable Long eventId,
+                                                           @RequestParam(defaultValue = "zip") String format,
+                                                           @RequestParam(defaultValue = "4") int columns) {
+        Event event = badgeService.requireEvent(eventId);
+        String name = "badges_" + event.getId() + "_" + event.getEventName().replaceAll("[^a-zA-Z0-9]", "_");
+        boolean svg = "svg".equalsIgnoreCase(format);
+        if (!svg && !"zip".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unknown badge format: " + format);
+        }
+        StreamingResponseBody body = svg
+                ? out -> badgeService.writeSvgSheet(eventId, columns, out)
+                : out -> badgeService.writeZip(eventId, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + (svg ? ".svg" : ".zip") + "\"")
+                .contentType(MediaType.parseMediaType(svg ? "image/svg+xml" : "application/zip"))
+                .body(body);
     }
 
     @GetMapping("/event/{eventId}/attendees")
-    public ResponseEntity<List<EventAttendeeResponse>> getEventAttendees(@PathVariable Long eventId) {
+    public ResponseEntity<List<EventAttendeeResponse>> getEventAttendees(@PathVariable Long eventId, WebRequest request) {
+        String etag = dataVersionService.rosterTag(eventId);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<EventAttendeeResponse> attendees = attendanceService.getEventAttendees(eventId);
-        return ResponseEntity.ok(attendees);
+        return ResponseEntity.ok().eTag(etag).body(attendees);
+    }
+
+    /**
+     * Current headcount by status, served from in-memory counters.
+     */
+    @GetMapping("/event/{eventId}/occupancy")
+    public ResponseEntity<OccupancyResponse> getOccupancy(@PathVariable Long eventId) {
+        return ResponseEntity.ok(occupancyTracker.occupancy(eventId));
+    }
+
+    /**
+     * Live attendance updates for an event as Server-Sent Events: "attendance"
+     * messages after each committed scan or bulk checkout, "resync" when the
+     * client fell too far behind and should reload the roster.
+     *
+     * Browsers' EventSource cannot send the Authorization header, so the stream
+     * also accepts ?token= from POST /event/{eventId}/stream-token.
+     */
+    @GetMapping(value = "/event/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendance(@PathVariable Long eventId) {
+        return attendanceStreamService.subscribe(eventId);
+    }
+
+    /**
+     * A token for opening this event's stream, valid for a minute and for
+     * nothing else. Fetch a new one for every (re)connect.
+     */
+    @PostMapping("/event/{eventId}/stream-token")
+    public ResponseEntity<StreamTokenResponse> createStreamToken(@PathVariable Long eventId, Authentication auth) {
+        String token = jwtUtils.generateStreamToken(auth.getName(), eventId);
+        return ResponseEntity.ok(new StreamTokenResponse(token, JwtUtils.STREAM_TOKEN_EXPIRATION_MS / 1000));
+    }
+
+    /**
+     * Attendees whose attendance changed since the cursor of a previous call.
+     * Call without "since" first to get the full roster and a starting cursor.
+     */
+    @GetMapping("/event/{eventId}/attendees/changes")
+    public ResponseEntity<AttendeeRosterChanges> getEventAttendeeChanges(@PathVariable Long eventId,
+            @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(attendanceService.getEventAttendeeChanges(eventId, since));
+    }
+
+    /**
+     * Keyset-paginated roster. status: ACTIVE, PAUSED, CHECKED_OUT or REGISTERED;
+     * q: name or email prefix; sort: "id" (default) or "activity" (most recent first).
+     */
+    @GetMapping("/event/{eventId}/attendees/page")
+    public ResponseEntity<AttendeeRosterPage> getEventAttendeesPage(@PathVariable Long eventId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        AttendeeRosterPage page = attendanceService.getEventAttendeesPage(
+                eventId, status, q, "activity".equalsIgnoreCase(sort), cursor, limit);
+        return ResponseEntity.ok(page);
     }
     
     /**
      * Get dashboard statistics for admin
      */
     @GetMapping("/admin/dashboard/stats")
-    public ResponseEntity<DashboardStatsResponse> getDashboardStats() {
+    public ResponseEntity<DashboardStatsResponse> getDashboardStats(WebRequest request) {
+        // the figures are in memory, so the tag is derived from them directly
         DashboardStatsResponse stats = adminService.getDashboardStats();
-        return ResponseEntity.ok(stats);
+        String etag = stats.etag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(stats);
+    }
+
+    /**
+     * QR image cache hit/miss counters and size since startup
+     */
+    @GetMapping("/admin/qr-cache/stats")
+    public ResponseEntity<QrCacheStatsResponse> getQrCacheStats() {
+        return ResponseEntity.ok(qrCodeCache.stats());
     }
 }
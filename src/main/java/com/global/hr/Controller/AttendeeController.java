@@ -5,10 +5,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.web.context.request.WebRequest;
 
 import com.global.hr.DTO.RegistrationDtoResponse;
 import com.global.hr.DTO.EventDtoResponse;
@@ -18,31 +23,44 @@ import com.global.hr.Repo.UserRepo;
 import com.global.hr.Service.RegistrationService;
 import com.global.hr.Service.EventService;
 import com.global.hr.Service.AttendanceService;
+import com.global.hr.Service.DataVersionService;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/attendee")
 public class AttendeeController {
 
+    private static final String SVG_VALUE = "image/svg+xml";
+
     private final RegistrationService registrationService;
     private final UserRepo userRepository;
     private final EventService eventService;
     private final AttendanceService attendanceService;
+    private final DataVersionService dataVersionService;
 
     public AttendeeController(RegistrationService registrationService,
                               UserRepo userRepository,
                               EventService eventService,
-                              AttendanceService attendanceService) {
+                              AttendanceService attendanceService,
+                              DataVersionService dataVersionService) {
         this.registrationService = registrationService;
         this.userRepository = userRepository;
         this.eventService = eventService;
         this.attendanceService = attendanceService;
+        this.dataVersionService = dataVersionService;
     }
 
     // GET /attendee/events -> returns list of all events for attendees to browse
     @GetMapping("/events")
-    public ResponseEntity<List<EventDtoResponse>> getAllEventsForAttendees() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<List<EventDtoResponse>> getAllEventsForAttendees(WebRequest request) {
+        String etag = dataVersionService.eventsTag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(eventService.getAllEvents());
     }
 
     // POST /attendee/events/{eventId}/register
@@ -55,26 +73,54 @@ public class AttendeeController {
         return ResponseEntity.ok(result);
     }
 
-    // GET /attendee/registrations -> returns list of user's registrations
+    // GET /attendee/registrations?qr=inline|url -> returns list of user's registrations
+    // qr=url leaves the image out and clients fetch (and cache) it from qrUrl instead
     @GetMapping("/registrations")
-    public ResponseEntity<List<RegistrationDtoResponse>> getUserRegistrations(Authentication auth) {
+    public ResponseEntity<List<RegistrationDtoResponse>> getUserRegistrations(
+            @RequestParam(defaultValue = "inline") String qr, Authentication auth) {
         String email = auth.getName();
-        List<RegistrationDtoResponse> registrations = registrationService.getUserRegistrations(email);
+        List<RegistrationDtoResponse> registrations =
+                registrationService.getUserRegistrations(email, !"url".equalsIgnoreCase(qr));
         return ResponseEntity.ok(registrations);
     }
 
-    // GET /attendee/registrations/{id}/qr  -> returns PNG image
-    @GetMapping(value = "/registrations/{id}/qr", produces = MediaType.IMAGE_PNG_VALUE)
-    public ResponseEntity<byte[]> getQr(@PathVariable Long id, Authentication auth) {
+    // GET /attendee/registrations/{id}/qr  -> returns PNG image, or SVG when the Accept header prefers it
+    @GetMapping(value = "/registrations/{id}/qr", produces = {MediaType.IMAGE_PNG_VALUE, SVG_VALUE})
+    public ResponseEntity<byte[]> getQr(@PathVariable Long id, Authentication auth, WebRequest request,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         String email = auth.getName();
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + email));
-        byte[] png = registrationService.getQrPngForRegistration(id, user.getId());
+        String code = registrationService.getCodeForRegistration(id, user.getId());
+        boolean svg = prefersSvg(accept);
 
+        // a registration's code never changes, so neither does its image:
+        // private because the URL is per-user and authenticated
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        String etag = registrationService.getQrEtag(code, svg);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=qr-"+id+".png")
-                .contentType(MediaType.IMAGE_PNG)
-                .body(png);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=qr-" + id + (svg ? ".svg" : ".png"))
+                .contentType(svg ? MediaType.parseMediaType(SVG_VALUE) : MediaType.IMAGE_PNG)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(svg ? registrationService.getQrSvg(code) : registrationService.getQrPng(code));
+    }
+
+    // SVG only when asked for with a higher preference than PNG; */* and image/* get PNG
+    private static boolean prefersSvg(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            if (type.includes(MediaType.IMAGE_PNG)) return false;
+            if (type.includes(MediaType.parseMediaType(SVG_VALUE))) return true;
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,62 @@
+package com.global.hr.Controller;
+
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.global.hr.Entity.Event;
+import com.global.hr.Service.ArchiveExportService;
+
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ArchiveExportService archiveExportService;
+
+    public ExportController(ArchiveExportService archiveExportService) {
+        this.archiveExportService = archiveExportService;
+    }
+
+    /**
+     * GET /export/attendees?eventIds=1,2,3 or ?from=...&to=... -> ZIP with one attendee CSV per event.
+     * gzip=true sends the ZIP with Content-Encoding: gzip, its entries stored rather
+     * than deflated: one gzip stream over all CSVs compresses better than each entry on its own.
+     */
+    @GetMapping(value = "/attendees", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> exportAttendees(
+            @RequestParam(required = false) List<Long> eventIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        // resolved up front so bad parameters are an error response, not a broken download
+        List<Event> events = archiveExportService.resolveEvents(eventIds, from, to);
+        String filename = "attendees_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".zip";
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                archiveExportService.writeArchive(events, true, out);
+                return;
+            }
+            // sync flush, so every finished entry reaches the client right away
+            GZIPOutputStream gzipped = new GZIPOutputStream(out, 8192, true);
+            archiveExportService.writeArchive(events, false, gzipped);
+            gzipped.finish();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("application/zip"));
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
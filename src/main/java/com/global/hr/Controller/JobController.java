@@ -0,0 +1,27 @@
+package com.global.hr.Controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.global.hr.DTO.BulkJobResponse;
+import com.global.hr.Service.BulkJobService;
+
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    private final BulkJobService bulkJobService;
+
+    public JobController(BulkJobService bulkJobService) {
+        this.bulkJobService = bulkJobService;
+    }
+
+    // GET /jobs/{id} -> progress and outcome of a background bulk job
+    @GetMapping("/{id}")
+    public ResponseEntity<BulkJobResponse> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(bulkJobService.getJob(id));
+    }
+}
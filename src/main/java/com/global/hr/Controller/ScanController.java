@@ -1,8 +1,10 @@
 package com.global.hr.Controller;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,17 +12,22 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.Authentication;
 
 import com.global.hr.DTO.AttendanceDtoResponse;
+import com.global.hr.DTO.ScanBatchItemResponse;
+import com.global.hr.DTO.ScanLockStatsResponse;
 import com.global.hr.DTO.ScanDtoRequest;
 import com.global.hr.Service.AttendanceService;
+import com.global.hr.Service.ScanLockStripes;
 
 @RestController
 @RequestMapping("/scan")
 public class ScanController {
 
     private final AttendanceService attendanceService;
+    private final ScanLockStripes scanLocks;
 
-    public ScanController(AttendanceService attendanceService) {
+    public ScanController(AttendanceService attendanceService, ScanLockStripes scanLocks) {
         this.attendanceService = attendanceService;
+        this.scanLocks = scanLocks;
     }
 
     /**
@@ -39,4 +46,21 @@ public class ScanController {
             "status", res.status
         ));
     }
+
+    /**
+     * Body: ordered array of scans queued on a device, each like the single scan body
+     * plus an optional "clientTimestamp". Returns one result per item, in order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ScanBatchItemResponse>> scanBatch(@RequestBody List<ScanDtoRequest> body) {
+        return ResponseEntity.ok(attendanceService.handleScanBatch(body));
+    }
+
+    /**
+     * Lock wait statistics for the configured scan.concurrency.mode since startup
+     */
+    @GetMapping("/lock-stats")
+    public ResponseEntity<ScanLockStatsResponse> lockStats() {
+        return ResponseEntity.ok(scanLocks.stats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.global.hr.DTO;
+
+import java.util.List;
+
+/**
+ * Attendees changed since a cursor, and the cursor to poll with next.
+ */
+public class AttendeeRosterChanges {
+    private List<EventAttendeeResponse> attendees;
+    private long cursor;
+
+    public AttendeeRosterChanges() {}
+
+    public AttendeeRosterChanges(List<EventAttendeeResponse> attendees, long cursor) {
+        this.attendees = attendees;
+        this.cursor = cursor;
+    }
+
+    public List<EventAttendeeResponse> getAttendees() {
+        return attendees;
+    }
+
+    public void setAttendees(List<EventAttendeeResponse> attendees) {
+        this.attendees = attendees;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+}
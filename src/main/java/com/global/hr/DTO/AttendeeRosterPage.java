@@ -0,0 +1,34 @@
+package com.global.hr.DTO;
+
+import java.util.List;
+
+/**
+ * A page of the event roster. nextCursor is null on the last page.
+ */
+public class AttendeeRosterPage {
+    private List<EventAttendeeResponse> attendees;
+    private String nextCursor;
+
+    public AttendeeRosterPage() {}
+
+    public AttendeeRosterPage(List<EventAttendeeResponse> attendees, String nextCursor) {
+        this.attendees = attendees;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventAttendeeResponse> getAttendees() {
+        return attendees;
+    }
+
+    public void setAttendees(List<EventAttendeeResponse> attendees) {
+        this.attendees = attendees;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.global.hr.DTO;
+
+import java.time.Instant;
+
+/**
+ * One page request against an event roster. The cursor fields hold the sort
+ * key of the last row already returned; null means the first page.
+ */
+public class AttendeeRosterQuery {
+    private final Long eventId;
+    private final String status;
+    private final String prefix;
+    private final boolean sortByActivity;
+    private final Instant afterActivity;
+    private final Long afterRegistrationId;
+    private final int limit;
+
+    public AttendeeRosterQuery(Long eventId, String status, String prefix, boolean sortByActivity,
+                               Instant afterActivity, Long afterRegistrationId, int limit) {
+        this.eventId = eventId;
+        this.status = status;
+        this.prefix = prefix;
+        this.sortByActivity = sortByActivity;
+        this.afterActivity = afterActivity;
+        this.afterRegistrationId = afterRegistrationId;
+        this.limit = limit;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public boolean isSortByActivity() {
+        return sortByActivity;
+    }
+
+    public Instant getAfterActivity() {
+        return afterActivity;
+    }
+
+    public Long getAfterRegistrationId() {
+        return afterRegistrationId;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
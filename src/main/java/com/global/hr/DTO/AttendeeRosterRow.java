@@ -0,0 +1,88 @@
+package com.global.hr.DTO;
+
+import java.time.Instant;
+
+import com.global.hr.Entity.AttendanceEventType;
+
+/**
+ * One roster line as read by a single join over registrations, users and
+ * attendance_ledgers. Ledger columns are null for registrations without a ledger row.
+ */
+public class AttendeeRosterRow {
+    private final Long registrationId;
+    private final Long userId;
+    private final String userName;
+    private final String userEmail;
+    private final String registrationCode;
+    private final Instant registeredAt;
+    private final AttendanceEventType lastEventType;
+    private final Instant lastEventAt;
+    private final Long accumulatedSeconds;
+    private final Instant openSessionStart;
+
+    public AttendeeRosterRow(Long registrationId, Long userId, String userName, String userEmail,
+                             String registrationCode, Instant registeredAt, AttendanceEventType lastEventType,
+                             Instant lastEventAt, Long accumulatedSeconds, Instant openSessionStart) {
+        this.registrationId = registrationId;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.registrationCode = registrationCode;
+        this.registeredAt = registeredAt;
+        this.lastEventType = lastEventType;
+        this.lastEventAt = lastEventAt;
+        this.accumulatedSeconds = accumulatedSeconds;
+        this.openSessionStart = openSessionStart;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getRegistrationCode() {
+        return registrationCode;
+    }
+
+    public Instant getRegisteredAt() {
+        return registeredAt;
+    }
+
+    public AttendanceEventType getLastEventType() {
+        return lastEventType;
+    }
+
+    public Instant getLastEventAt() {
+        return lastEventAt;
+    }
+
+    public Long getAccumulatedSeconds() {
+        return accumulatedSeconds;
+    }
+
+    public Instant getOpenSessionStart() {
+        return openSessionStart;
+    }
+
+    /**
+     * Total active seconds as of now, counting an open session up to it.
+     */
+    public long totalSecondsAt(Instant now) {
+        long total = accumulatedSeconds == null ? 0L : accumulatedSeconds;
+        if (openSessionStart != null) {
+            total += now.getEpochSecond() - openSessionStart.getEpochSecond();
+        }
+        return total;
+    }
+}
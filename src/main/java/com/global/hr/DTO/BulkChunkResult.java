@@ -0,0 +1,29 @@
+package com.global.hr.DTO;
+
+/**
+ * Outcome of one chunk of a bulk job: how many registrations it looked at,
+ * how many it changed, and the highest registration id it reached.
+ */
+public class BulkChunkResult {
+    private final int registrations;
+    private final int affected;
+    private final Long lastRegistrationId;
+
+    public BulkChunkResult(int registrations, int affected, Long lastRegistrationId) {
+        this.registrations = registrations;
+        this.affected = affected;
+        this.lastRegistrationId = lastRegistrationId;
+    }
+
+    public int getRegistrations() {
+        return registrations;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public Long getLastRegistrationId() {
+        return lastRegistrationId;
+    }
+}
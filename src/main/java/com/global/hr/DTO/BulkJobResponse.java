@@ -0,0 +1,86 @@
+package com.global.hr.DTO;
+
+import java.time.Instant;
+
+import com.global.hr.Entity.BulkJob;
+import com.global.hr.Entity.BulkJobStatus;
+import com.global.hr.Entity.BulkJobType;
+
+/**
+ * Progress of a background bulk job. For CHECKOUT_ALL, affected is the number
+ * checked out and processed - affected the number already checked out; for
+ * DELETE_EVENT, affected is the number of registrations deleted.
+ */
+public class BulkJobResponse {
+    private Long id;
+    private BulkJobType type;
+    private Long eventId;
+    private BulkJobStatus status;
+    private int total;
+    private int processed;
+    private int affected;
+    private String error;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public BulkJobResponse() {}
+
+    public BulkJobResponse(BulkJob job) {
+        this.id = job.getId();
+        this.type = job.getType();
+        this.eventId = job.getEventId();
+        this.status = job.getStatus();
+        this.total = job.getTotal();
+        this.processed = job.getProcessed();
+        this.affected = job.getAffected();
+        this.error = job.getError();
+        this.createdAt = job.getCreatedAt();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BulkJobType getType() {
+        return type;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public BulkJobStatus getStatus() {
+        return status;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
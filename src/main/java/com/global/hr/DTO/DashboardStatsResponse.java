@@ -7,11 +7,16 @@ public class DashboardStatsResponse {
     private final long totalEvents;
     private final long totalAttendees;
     private final long totalRegistrations;
+    private final long activeAttendees;
+    private final long scansLastFiveMinutes;
     
-    public DashboardStatsResponse(long totalEvents, long totalAttendees, long totalRegistrations) {
+    public DashboardStatsResponse(long totalEvents, long totalAttendees, long totalRegistrations,
+                                  long activeAttendees, long scansLastFiveMinutes) {
         this.totalEvents = totalEvents;
         this.totalAttendees = totalAttendees;
         this.totalRegistrations = totalRegistrations;
+        this.activeAttendees = activeAttendees;
+        this.scansLastFiveMinutes = scansLastFiveMinutes;
     }
     
     public long getTotalEvents() { 
@@ -25,4 +30,20 @@ public class DashboardStatsResponse {
     public long getTotalRegistrations() { 
         return totalRegistrations; 
     }
+    
+    public long getActiveAttendees() { 
+        return activeAttendees; 
+    }
+    
+    public long getScansLastFiveMinutes() { 
+        return scansLastFiveMinutes; 
+    }
+    
+    /**
+     * Strong validator for this exact set of figures.
+     */
+    public String etag() {
+        return "\"s-" + totalEvents + "-" + totalAttendees + "-" + totalRegistrations + "-"
+            + activeAttendees + "-" + scansLastFiveMinutes + "\"";
+    }
 }
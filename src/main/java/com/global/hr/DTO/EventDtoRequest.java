@@ -8,6 +8,11 @@ public class EventDtoRequest {
     private String eventName;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    // optional credit-hours policy overrides
+    private Integer creditRoundingMinutes;
+    private Integer creditMinimumMinutes;
+    private Boolean creditCapToDuration;
+    private Boolean creditClipToWindow;
 	public String getEventName() {
 		return eventName;
 	}
@@ -26,4 +31,28 @@ public class EventDtoRequest {
 	public void setEndTime(LocalDateTime endTime) {
 		this.endTime = endTime;
 	}
+	public Integer getCreditRoundingMinutes() {
+		return creditRoundingMinutes;
+	}
+	public void setCreditRoundingMinutes(Integer creditRoundingMinutes) {
+		this.creditRoundingMinutes = creditRoundingMinutes;
+	}
+	public Integer getCreditMinimumMinutes() {
+		return creditMinimumMinutes;
+	}
+	public void setCreditMinimumMinutes(Integer creditMinimumMinutes) {
+		this.creditMinimumMinutes = creditMinimumMinutes;
+	}
+	public Boolean getCreditCapToDuration() {
+		return creditCapToDuration;
+	}
+	public void setCreditCapToDuration(Boolean creditCapToDuration) {
+		this.creditCapToDuration = creditCapToDuration;
+	}
+	public Boolean getCreditClipToWindow() {
+		return creditClipToWindow;
+	}
+	public void setCreditClipToWindow(Boolean creditClipToWindow) {
+		this.creditClipToWindow = creditClipToWindow;
+	}
 }
@@ -0,0 +1,69 @@
+package com.global.hr.DTO;
+
+public class OccupancyResponse {
+    private Long eventId;
+    private long registered;
+    private long active;
+    private long paused;
+    private long checkedOut;
+
+    public OccupancyResponse() {}
+
+    public OccupancyResponse(Long eventId, long registered, long active, long paused, long checkedOut) {
+        this.eventId = eventId;
+        this.registered = registered;
+        this.active = active;
+        this.paused = paused;
+        this.checkedOut = checkedOut;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Registered but not scanned in yet.
+     */
+    public long getRegistered() {
+        return registered;
+    }
+
+    public void setRegistered(long registered) {
+        this.registered = registered;
+    }
+
+    /**
+     * In the room right now.
+     */
+    public long getActive() {
+        return active;
+    }
+
+    public void setActive(long active) {
+        this.active = active;
+    }
+
+    public long getPaused() {
+        return paused;
+    }
+
+    public void setPaused(long paused) {
+        this.paused = paused;
+    }
+
+    public long getCheckedOut() {
+        return checkedOut;
+    }
+
+    public void setCheckedOut(long checkedOut) {
+        this.checkedOut = checkedOut;
+    }
+
+    public long getTotal() {
+        return registered + active + paused + checkedOut;
+    }
+}
@@ -0,0 +1,84 @@
+package com.global.hr.DTO;
+
+/**
+ * DTO for QR image cache statistics since startup
+ */
+public class QrCacheStatsResponse {
+    private final int entries;
+    private final long bytes;
+    private final long maxBytes;
+    private final long memoryHits;
+    private final long diskHits;
+    private final long misses;
+    private final long evictions;
+    private final boolean diskEnabled;
+    private final int diskEntries;
+    private final long diskBytes;
+    private final long maxDiskBytes;
+    private final long diskEvictions;
+
+    public QrCacheStatsResponse(int entries, long bytes, long maxBytes, long memoryHits, long diskHits,
+                                long misses, long evictions, boolean diskEnabled,
+                                int diskEntries, long diskBytes, long maxDiskBytes, long diskEvictions) {
+        this.entries = entries;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+        this.memoryHits = memoryHits;
+        this.diskHits = diskHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.diskEnabled = diskEnabled;
+        this.diskEntries = diskEntries;
+        this.diskBytes = diskBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.diskEvictions = diskEvictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public long getDiskHits() {
+        return diskHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public boolean isDiskEnabled() {
+        return diskEnabled;
+    }
+
+    public int getDiskEntries() {
+        return diskEntries;
+    }
+
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    public long getMaxDiskBytes() {
+        return maxDiskBytes;
+    }
+
+    public long getDiskEvictions() {
+        return diskEvictions;
+    }
+}
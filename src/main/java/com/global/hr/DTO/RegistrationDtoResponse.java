@@ -5,12 +5,22 @@ public class RegistrationDtoResponse {
        public Long eventId;
        public String code;
        public String qrBase64;
+       // stable URL of the QR image; qrBase64 is null when the list is requested with qr=url
+       public String qrUrl;
 	   public RegistrationDtoResponse(Long registrationId, Long eventId, String code, String qrBase64) {
+		this(registrationId, eventId, code, qrBase64, qrUrlFor(registrationId));
+	   }
+	   public RegistrationDtoResponse(Long registrationId, Long eventId, String code, String qrBase64, String qrUrl) {
 		super();
 		this.registrationId = registrationId;
 		this.eventId = eventId;
 		this.code = code;
 		this.qrBase64 = qrBase64;
+		this.qrUrl = qrUrl;
+	   }
+
+	   public static String qrUrlFor(Long registrationId) {
+		return "/attendee/registrations/" + registrationId + "/qr";
 	   }
   
 }
@@ -0,0 +1,49 @@
+package com.global.hr.DTO;
+
+import java.util.List;
+
+/**
+ * Result of a registration import: totals plus the outcome of every row.
+ */
+public class RegistrationImportResponse {
+    private final Long eventId;
+    private final int usersCreated;
+    private final int registered;
+    private final int skipped;
+    private final int errors;
+    private final List<RegistrationImportRow> rows;
+
+    public RegistrationImportResponse(Long eventId, int usersCreated, int registered, int skipped, int errors,
+                                      List<RegistrationImportRow> rows) {
+        this.eventId = eventId;
+        this.usersCreated = usersCreated;
+        this.registered = registered;
+        this.skipped = skipped;
+        this.errors = errors;
+        this.rows = rows;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public int getUsersCreated() {
+        return usersCreated;
+    }
+
+    public int getRegistered() {
+        return registered;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public List<RegistrationImportRow> getRows() {
+        return rows;
+    }
+}
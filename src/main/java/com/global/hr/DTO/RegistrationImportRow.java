@@ -0,0 +1,44 @@
+package com.global.hr.DTO;
+
+/**
+ * Outcome of one CSV row of a registration import. row is the line number in
+ * the file (the header is line 1).
+ *
+ * outcome: REGISTERED, USER_CREATED (new account, then registered),
+ * ALREADY_REGISTERED, DUPLICATE (same email earlier in the file) or ERROR.
+ */
+public class RegistrationImportRow {
+    private final long row;
+    private final String email;
+    private final String outcome;
+    private final Long registrationId;
+    private final String message;
+
+    public RegistrationImportRow(long row, String email, String outcome, Long registrationId, String message) {
+        this.row = row;
+        this.email = email;
+        this.outcome = outcome;
+        this.registrationId = registrationId;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
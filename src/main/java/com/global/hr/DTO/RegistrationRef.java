@@ -0,0 +1,28 @@
+package com.global.hr.DTO;
+
+/**
+ * Ids behind a registration code, enough to route a scan without loading entities
+ */
+public class RegistrationRef {
+    private final Long registrationId;
+    private final Long eventId;
+    private final Long userId;
+
+    public RegistrationRef(Long registrationId, Long eventId, Long userId) {
+        this.registrationId = registrationId;
+        this.eventId = eventId;
+        this.userId = userId;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,67 @@
+package com.global.hr.DTO;
+
+import com.global.hr.Entity.AttendanceEventType;
+
+/**
+ * Outcome of one scan inside a batch upload, in the same position as the request item
+ */
+public class ScanBatchItemResponse {
+    private final int index;
+    private final String code;
+    private final String result; // APPLIED, DUPLICATE or ERROR
+    private final Long registrationId;
+    private final AttendanceEventType status;
+    private final Double creditHours;
+    private final String error;
+
+    public ScanBatchItemResponse(int index, String code, String result, Long registrationId,
+                                 AttendanceEventType status, Double creditHours, String error) {
+        this.index = index;
+        this.code = code;
+        this.result = result;
+        this.registrationId = registrationId;
+        this.status = status;
+        this.creditHours = creditHours;
+        this.error = error;
+    }
+
+    public static ScanBatchItemResponse applied(int index, String code, AttendanceDtoResponse res) {
+        return new ScanBatchItemResponse(index, code, "APPLIED", res.getRegistrationId(), res.getStatus(), res.getCreditHours(), null);
+    }
+
+    public static ScanBatchItemResponse duplicate(int index, String code, AttendanceDtoResponse res) {
+        return new ScanBatchItemResponse(index, code, "DUPLICATE", res.getRegistrationId(), res.getStatus(), res.getCreditHours(), null);
+    }
+
+    public static ScanBatchItemResponse error(int index, String code, String error) {
+        return new ScanBatchItemResponse(index, code, "ERROR", null, null, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public AttendanceEventType getStatus() {
+        return status;
+    }
+
+    public Double getCreditHours() {
+        return creditHours;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -1,9 +1,12 @@
 package com.global.hr.DTO;
 
+import java.time.Instant;
+
 public class ScanDtoRequest {
 	public String code;
     public String action; // optional
     public String idempotencyKey; // optional
+    public Instant clientTimestamp; // optional, when the device actually scanned (batch uploads)
 	public String getCode() {
 		return code;
 	}
@@ -22,5 +25,11 @@ public class ScanDtoRequest {
 	public void setIdempotencyKey(String idempotencyKey) {
 		this.idempotencyKey = idempotencyKey;
 	}
+	public Instant getClientTimestamp() {
+		return clientTimestamp;
+	}
+	public void setClientTimestamp(Instant clientTimestamp) {
+		this.clientTimestamp = clientTimestamp;
+	}
 
 }
@@ -0,0 +1,40 @@
+package com.global.hr.DTO;
+
+/**
+ * DTO for scan lock wait statistics since startup
+ */
+public class ScanLockStatsResponse {
+    private final String mode;
+    private final long acquisitions;
+    private final long averageWaitMicros;
+    private final long maxWaitMicros;
+    private final long optimisticRetries;
+
+    public ScanLockStatsResponse(String mode, long acquisitions, long averageWaitMicros, long maxWaitMicros, long optimisticRetries) {
+        this.mode = mode;
+        this.acquisitions = acquisitions;
+        this.averageWaitMicros = averageWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+        this.optimisticRetries = optimisticRetries;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getAverageWaitMicros() {
+        return averageWaitMicros;
+    }
+
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+
+    public long getOptimisticRetries() {
+        return optimisticRetries;
+    }
+}
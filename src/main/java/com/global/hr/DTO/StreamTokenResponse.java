@@ -0,0 +1,33 @@
+package com.global.hr.DTO;
+
+/**
+ * Short-lived token for opening one event's attendance stream with EventSource,
+ * which cannot send an Authorization header.
+ */
+public class StreamTokenResponse {
+    private String token;
+    private long expiresInSeconds;
+
+    public StreamTokenResponse() {}
+
+    public StreamTokenResponse(String token, long expiresInSeconds) {
+        this.token = token;
+        this.expiresInSeconds = expiresInSeconds;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getExpiresInSeconds() {
+        return expiresInSeconds;
+    }
+
+    public void setExpiresInSeconds(long expiresInSeconds) {
+        this.expiresInSeconds = expiresInSeconds;
+    }
+}
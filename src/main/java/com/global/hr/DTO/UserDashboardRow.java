@@ -0,0 +1,46 @@
+package com.global.hr.DTO;
+
+import java.time.Instant;
+
+import com.global.hr.Entity.Event;
+
+/**
+ * One registration of a user with its event and running totals, as read by the
+ * single dashboard query. Ledger columns are null for registrations without a ledger row.
+ */
+public class UserDashboardRow {
+    private final Long registrationId;
+    private final Event event;
+    private final Long accumulatedSeconds;
+    private final Instant openSessionStart;
+    private final Integer checkinCount;
+
+    public UserDashboardRow(Long registrationId, Event event, Long accumulatedSeconds,
+                            Instant openSessionStart, Integer checkinCount) {
+        this.registrationId = registrationId;
+        this.event = event;
+        this.accumulatedSeconds = accumulatedSeconds;
+        this.openSessionStart = openSessionStart;
+        this.checkinCount = checkinCount;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public Long getAccumulatedSeconds() {
+        return accumulatedSeconds;
+    }
+
+    public Instant getOpenSessionStart() {
+        return openSessionStart;
+    }
+
+    public Integer getCheckinCount() {
+        return checkinCount;
+    }
+}
@@ -5,7 +5,8 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "attendance_events",
-       indexes = {@Index(name="idx_reg_created", columnList="registration_id, created_at")})
+       indexes = {@Index(name="idx_reg_created", columnList="registration_id, created_at"),
+                  @Index(name="idx_created", columnList="created_at")})
 public class AttendanceEvent {
 
     @Id
@@ -0,0 +1,137 @@
+package com.global.hr.Entity;
+
+/**
+ * The one set of rules for turning attendance events into time attended:
+ * CHECKIN/RESUME open a session (if none is open), PAUSE/CHECKOUT/MANUAL close
+ * it, and an open session counts up to "now". Times are epoch seconds and
+ * event types are byte codes, so a history can be folded straight from JDBC
+ * columns or arrays without creating entities or Duration objects.
+ *
+ * An instance is a reusable accumulator: reset(), apply() each event in time
+ * order, then read the results. Not thread-safe.
+ */
+public final class AttendanceIntervals {
+
+    public static final byte CHECKIN = (byte) AttendanceEventType.CHECKIN.ordinal();
+    public static final byte PAUSE = (byte) AttendanceEventType.PAUSE.ordinal();
+    public static final byte RESUME = (byte) AttendanceEventType.RESUME.ordinal();
+    public static final byte CHECKOUT = (byte) AttendanceEventType.CHECKOUT.ordinal();
+    public static final byte MANUAL = (byte) AttendanceEventType.MANUAL.ordinal();
+
+    /** Marker for "no such time" in the epoch-second results. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final AttendanceEventType[] TYPES = AttendanceEventType.values();
+
+    private long closedSeconds;
+    private long openSince = NONE;
+    private long firstCheckin = NONE;
+    private long lastCheckout = NONE;
+    private int sessionCount;
+    private int eventCount;
+    private byte lastType = -1;
+
+    public static byte code(AttendanceEventType type) {
+        return (byte) type.ordinal();
+    }
+
+    public static AttendanceEventType type(byte code) {
+        return TYPES[code];
+    }
+
+    /**
+     * Code for an event type as stored in the database (the enum name).
+     */
+    public static byte code(String name) {
+        switch (name) {
+            case "CHECKIN": return CHECKIN;
+            case "PAUSE": return PAUSE;
+            case "RESUME": return RESUME;
+            case "CHECKOUT": return CHECKOUT;
+            case "MANUAL": return MANUAL;
+            default: throw new IllegalArgumentException("Unknown attendance event type: " + name);
+        }
+    }
+
+    public static boolean opensSession(byte code) {
+        return code == CHECKIN || code == RESUME;
+    }
+
+    public static boolean closesSession(byte code) {
+        return code == PAUSE || code == CHECKOUT || code == MANUAL;
+    }
+
+    /**
+     * Fold events [from, to) of the given columns into this accumulator, after a reset.
+     */
+    public AttendanceIntervals compute(long[] epochSeconds, byte[] types, int from, int to) {
+        reset();
+        for (int i = from; i < to; i++) {
+            apply(types[i], epochSeconds[i]);
+        }
+        return this;
+    }
+
+    public AttendanceIntervals reset() {
+        closedSeconds = 0;
+        openSince = NONE;
+        firstCheckin = NONE;
+        lastCheckout = NONE;
+        sessionCount = 0;
+        eventCount = 0;
+        lastType = -1;
+        return this;
+    }
+
+    public void apply(byte type, long epochSecond) {
+        if (opensSession(type)) {
+            if (openSince == NONE) {
+                openSince = epochSecond;
+                sessionCount++;
+            }
+        } else if (closesSession(type) && openSince != NONE) {
+            closedSeconds += epochSecond - openSince;
+            openSince = NONE;
+        }
+        if (type == CHECKIN && firstCheckin == NONE) firstCheckin = epochSecond;
+        if (type == CHECKOUT) lastCheckout = epochSecond;
+        lastType = type;
+        eventCount++;
+    }
+
+    /**
+     * Time attended as of nowEpochSecond, counting an open session up to it.
+     */
+    public long totalSecondsAt(long nowEpochSecond) {
+        return openSince == NONE ? closedSeconds : closedSeconds + (nowEpochSecond - openSince);
+    }
+
+    public long getClosedSeconds() {
+        return closedSeconds;
+    }
+
+    public long getOpenSince() {
+        return openSince;
+    }
+
+    public long getFirstCheckin() {
+        return firstCheckin;
+    }
+
+    public long getLastCheckout() {
+        return lastCheckout;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /** Last event type code, or -1 if no events were applied. */
+    public byte getLastType() {
+        return lastType;
+    }
+}
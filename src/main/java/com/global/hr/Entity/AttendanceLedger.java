@@ -0,0 +1,154 @@
+package com.global.hr.Entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Running attendance totals for one registration, kept in step with the
+ * attendance_events history so readers don't have to replay it.
+ */
+@Entity
+@Table(name = "attendance_ledgers")
+public class AttendanceLedger {
+
+    @Id
+    @Column(name = "registration_id")
+    private Long registrationId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "registration_id")
+    private Registration registration;
+
+    // seconds of closed sessions only; the open session is added at read time
+    @Column(name = "accumulated_seconds", nullable = false)
+    private long accumulatedSeconds;
+
+    // start of the current active session, null while paused/checked out
+    @Column(name = "open_session_start")
+    private Instant openSessionStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_event_type", length = 20)
+    private AttendanceEventType lastEventType;
+
+    @Column(name = "last_event_at")
+    private Instant lastEventAt;
+
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    @Column(name = "checkin_count", nullable = false)
+    private int checkinCount;
+
+    public AttendanceLedger() {
+    }
+
+    public AttendanceLedger(Registration registration) {
+        this.registration = registration;
+    }
+
+    /**
+     * Fold one attendance event into the totals, by the rules of {@link AttendanceIntervals}.
+     */
+    public void apply(AttendanceEventType type, Instant at) {
+        byte code = AttendanceIntervals.code(type);
+        if (AttendanceIntervals.opensSession(code)) {
+            if (openSessionStart == null) openSessionStart = at;
+        } else if (AttendanceIntervals.closesSession(code) && openSessionStart != null) {
+            accumulatedSeconds += at.getEpochSecond() - openSessionStart.getEpochSecond();
+            openSessionStart = null;
+        }
+        if (type == AttendanceEventType.CHECKIN) checkinCount++;
+        lastEventType = type;
+        lastEventAt = at;
+        eventCount++;
+    }
+
+    /**
+     * Detached copy of the totals, for callers that keep ledger state outside a transaction.
+     */
+    public AttendanceLedger snapshot() {
+        AttendanceLedger copy = new AttendanceLedger();
+        copy.registrationId = registrationId;
+        copy.accumulatedSeconds = accumulatedSeconds;
+        copy.openSessionStart = openSessionStart;
+        copy.lastEventType = lastEventType;
+        copy.lastEventAt = lastEventAt;
+        copy.eventCount = eventCount;
+        copy.checkinCount = checkinCount;
+        return copy;
+    }
+
+    /**
+     * Total active seconds as of the given instant, counting an open session up to it.
+     */
+    public long totalSecondsAt(Instant now) {
+        if (openSessionStart == null) return accumulatedSeconds;
+        return accumulatedSeconds + (now.getEpochSecond() - openSessionStart.getEpochSecond());
+    }
+
+    public Long getRegistrationId() {
+		return registrationId;
+	}
+
+	public void setRegistrationId(Long registrationId) {
+		this.registrationId = registrationId;
+	}
+
+	public Registration getRegistration() {
+		return registration;
+	}
+
+	public void setRegistration(Registration registration) {
+		this.registration = registration;
+	}
+
+	public long getAccumulatedSeconds() {
+		return accumulatedSeconds;
+	}
+
+	public void setAccumulatedSeconds(long accumulatedSeconds) {
+		this.accumulatedSeconds = accumulatedSeconds;
+	}
+
+	public Instant getOpenSessionStart() {
+		return openSessionStart;
+	}
+
+	public void setOpenSessionStart(Instant openSessionStart) {
+		this.openSessionStart = openSessionStart;
+	}
+
+	public AttendanceEventType getLastEventType() {
+		return lastEventType;
+	}
+
+	public void setLastEventType(AttendanceEventType lastEventType) {
+		this.lastEventType = lastEventType;
+	}
+
+	public Instant getLastEventAt() {
+		return lastEventAt;
+	}
+
+	public void setLastEventAt(Instant lastEventAt) {
+		this.lastEventAt = lastEventAt;
+	}
+
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	public void setEventCount(int eventCount) {
+		this.eventCount = eventCount;
+	}
+
+	public int getCheckinCount() {
+		return checkinCount;
+	}
+
+	public void setCheckinCount(int checkinCount) {
+		this.checkinCount = checkinCount;
+	}
+}
@@ -0,0 +1,178 @@
+package com.global.hr.Entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A bulk operation run in the background in chunks. Progress is saved with
+ * each chunk, so a job interrupted by a restart continues after its cursor.
+ */
+@Entity
+@Table(name = "bulk_jobs",
+       indexes = {@Index(name="idx_job_status", columnList="status")})
+public class BulkJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private BulkJobType type;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BulkJobStatus status = BulkJobStatus.PENDING;
+
+    // registrations in scope when the job was submitted
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    // registrations handled so far
+    @Column(name = "processed", nullable = false)
+    private int processed;
+
+    // registrations actually changed: checked out, or deleted
+    @Column(name = "affected", nullable = false)
+    private int affected;
+
+    // highest registration id already handled
+    @Column(name = "cursor_id")
+    private Long cursorId;
+
+    // bumped by every worker that claims the job; only the latest claim may write progress
+    @Column(name = "attempt", nullable = false)
+    private int attempt;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public BulkJob() {
+    }
+
+    public BulkJob(BulkJobType type, Long eventId, int total) {
+        this.type = type;
+        this.eventId = eventId;
+        this.total = total;
+    }
+
+    public boolean isFinished() {
+        return status == BulkJobStatus.SUCCEEDED || status == BulkJobStatus.FAILED;
+    }
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public BulkJobType getType() {
+		return type;
+	}
+
+	public void setType(BulkJobType type) {
+		this.type = type;
+	}
+
+	public Long getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(Long eventId) {
+		this.eventId = eventId;
+	}
+
+	public BulkJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(BulkJobStatus status) {
+		this.status = status;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public void setTotal(int total) {
+		this.total = total;
+	}
+
+	public int getProcessed() {
+		return processed;
+	}
+
+	public void setProcessed(int processed) {
+		this.processed = processed;
+	}
+
+	public int getAffected() {
+		return affected;
+	}
+
+	public void setAffected(int affected) {
+		this.affected = affected;
+	}
+
+	public Long getCursorId() {
+		return cursorId;
+	}
+
+	public void setCursorId(Long cursorId) {
+		this.cursorId = cursorId;
+	}
+
+	public int getAttempt() {
+		return attempt;
+	}
+
+	public void setAttempt(int attempt) {
+		this.attempt = attempt;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public void setStartedAt(Instant startedAt) {
+		this.startedAt = startedAt;
+	}
+
+	public Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(Instant finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+}
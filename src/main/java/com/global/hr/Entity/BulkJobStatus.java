@@ -0,0 +1,4 @@
+package com.global.hr.Entity;
+public enum BulkJobStatus {
+    PENDING, RUNNING, SUCCEEDED, FAILED
+}
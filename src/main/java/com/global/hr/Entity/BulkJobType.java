@@ -0,0 +1,4 @@
+package com.global.hr.Entity;
+public enum BulkJobType {
+    CHECKOUT_ALL, DELETE_EVENT
+}
@@ -13,6 +13,16 @@ public class Event {
 	private LocalDateTime eventStartTime;
 	private LocalDateTime eventEndTime;
 
+	// credit-hours policy overrides, null = application default
+	private Integer creditRoundingMinutes;
+	private Integer creditMinimumMinutes;
+	private Boolean creditCapToDuration;
+	private Boolean creditClipToWindow;
+
+	// set once a background deletion has been accepted; scans and new registrations are refused
+	@Column(nullable = false)
+	private boolean deleting;
+
 	public Event(String eventName, LocalDateTime eventStartTime, LocalDateTime eventEndTime) {
 		super();
 		this.eventName = eventName;
@@ -55,4 +65,44 @@ public class Event {
 		this.eventEndTime = eventEndTime;
 	}
 
+	public Integer getCreditRoundingMinutes() {
+		return creditRoundingMinutes;
+	}
+
+	public void setCreditRoundingMinutes(Integer creditRoundingMinutes) {
+		this.creditRoundingMinutes = creditRoundingMinutes;
+	}
+
+	public Integer getCreditMinimumMinutes() {
+		return creditMinimumMinutes;
+	}
+
+	public void setCreditMinimumMinutes(Integer creditMinimumMinutes) {
+		this.creditMinimumMinutes = creditMinimumMinutes;
+	}
+
+	public Boolean getCreditCapToDuration() {
+		return creditCapToDuration;
+	}
+
+	public void setCreditCapToDuration(Boolean creditCapToDuration) {
+		this.creditCapToDuration = creditCapToDuration;
+	}
+
+	public Boolean getCreditClipToWindow() {
+		return creditClipToWindow;
+	}
+
+	public void setCreditClipToWindow(Boolean creditClipToWindow) {
+		this.creditClipToWindow = creditClipToWindow;
+	}
+
+	public boolean isDeleting() {
+		return deleting;
+	}
+
+	public void setDeleting(boolean deleting) {
+		this.deleting = deleting;
+	}
+
 }
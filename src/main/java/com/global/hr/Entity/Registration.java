@@ -8,7 +8,10 @@ import java.time.Instant;
        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id","event_id"}))
 public class Registration {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled ids (not IDENTITY) so inserts can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registrations_seq")
+    @SequenceGenerator(name = "registrations_seq", sequenceName = "registrations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch=FetchType.LAZY) @JoinColumn(name="user_id", nullable=false)
@@ -27,6 +30,10 @@ public class Registration {
     @Column(nullable=false)
     private Instant createdAt = Instant.now();
 
+    // bumped with every scan so concurrent writers on other nodes are detected
+    @Version
+    private Long version;
+
     // getters/setters
     public Long getId() { return id; } public void setId(Long id) { this.id = id; }
     public User getUser() { return user; } public void setUser(User user) { this.user = user; }
@@ -34,4 +41,5 @@ public class Registration {
     public String getCode() { return code; } public void setCode(String code) { this.code = code; }
     public RegistrationStatus getStatus() { return status; } public void setStatus(RegistrationStatus status) { this.status = status; }
     public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Long getVersion() { return version; } public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.global.hr.Entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Result of a scan stored under the client's idempotency key so retries
+ * get the original answer instead of a second attendance event.
+ */
+@Entity
+@Table(name = "scan_idempotency_keys",
+       indexes = {@Index(name="idx_idem_created", columnList="created_at")})
+public class ScanIdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "registration_code", nullable = false, length = 64)
+    private String registrationCode;
+
+    @Column(name = "registration_id", nullable = false)
+    private Long registrationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private AttendanceEventType eventType;
+
+    @Column(name = "credit_hours", nullable = false)
+    private double creditHours;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    // keys are assigned by the client, so tell Spring Data to persist rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+
+	public String getRegistrationCode() {
+		return registrationCode;
+	}
+
+	public void setRegistrationCode(String registrationCode) {
+		this.registrationCode = registrationCode;
+	}
+
+	public Long getRegistrationId() {
+		return registrationId;
+	}
+
+	public void setRegistrationId(Long registrationId) {
+		this.registrationId = registrationId;
+	}
+
+	public AttendanceEventType getEventType() {
+		return eventType;
+	}
+
+	public void setEventType(AttendanceEventType eventType) {
+		this.eventType = eventType;
+	}
+
+	public double getCreditHours() {
+		return creditHours;
+	}
+
+	public void setCreditHours(double creditHours) {
+		this.creditHours = creditHours;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+}
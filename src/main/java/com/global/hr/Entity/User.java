@@ -3,8 +3,10 @@ import jakarta.persistence.*;
 @Entity
 @Table(name = "users")
 public class User {
+	 // pooled ids (not IDENTITY) so inserts can be JDBC-batched
 	 @Id
-	    @GeneratedValue(strategy = GenerationType.IDENTITY)
+	    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+	    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
 	  private Long id;
 	 private String name;
 
@@ -1,10 +1,14 @@
 package com.global.hr.Repo;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Lock;
 import jakarta.persistence.LockModeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.global.hr.Entity.AttendanceEvent;
@@ -20,4 +24,37 @@ public interface AttendanceEventRepo extends JpaRepository<AttendanceEvent, Long
     // bulk delete all attendance events for a set of registrations
     void deleteByRegistrationIn(List<Registration> registrations);
 
+    // one DELETE statement, unlike the derived delete above which removes entities one by one
+    @Modifying
+    @Query("delete from AttendanceEvent e where e.registration.id in :registrationIds")
+    int deleteByRegistrationIds(@Param("registrationIds") Collection<Long> registrationIds);
+
+    // newest attendance event id. Ids are handed out at insert, not at commit, so
+    // rows below it may still appear later; see AttendanceService.getEventAttendeeChanges
+    @Query("select coalesce(max(e.id), 0) from AttendanceEvent e")
+    long findMaxId();
+
+    // created_at of the newest event at or below an id (pass a page of one)
+    @Query("select e.createdAt from AttendanceEvent e where e.id <= :id order by e.id desc")
+    List<Instant> findCreatedAtAtOrBefore(@Param("id") long id, Pageable pageable);
+
+    // registrations of an event with attendance events in (afterId, upToId], read by primary key range
+    @Query("select distinct e.registration.id from AttendanceEvent e " +
+           "where e.id > :afterId and e.id <= :upToId and e.registration.event.id = :eventId")
+    List<Long> findRegistrationIdsChangedBetween(@Param("eventId") Long eventId,
+                                                 @Param("afterId") long afterId,
+                                                 @Param("upToId") long upToId);
+
+    // registrations of an event with attendance events recorded since a time, up to an id
+    @Query("select distinct e.registration.id from AttendanceEvent e " +
+           "where e.createdAt >= :from and e.id <= :upToId and e.registration.event.id = :eventId")
+    List<Long> findRegistrationIdsRecordedSince(@Param("eventId") Long eventId,
+                                                @Param("from") Instant from,
+                                                @Param("upToId") long upToId);
+
+    // newest attendance events across a user's registrations: type, event name, time
+    @Query("select e.eventType, ev.eventName, e.createdAt from AttendanceEvent e join e.registration r join r.event ev " +
+           "where r.user.id = :userId order by e.createdAt desc, e.id desc")
+    List<Object[]> findRecentActivityForUser(@Param("userId") Long userId, Pageable pageable);
+
 }
@@ -0,0 +1,63 @@
+package com.global.hr.Repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.global.hr.DTO.AttendeeRosterRow;
+import com.global.hr.DTO.UserDashboardRow;
+
+import com.global.hr.Entity.AttendanceLedger;
+import com.global.hr.Entity.Registration;
+
+public interface AttendanceLedgerRepo extends JpaRepository<AttendanceLedger, Long>, AttendanceLedgerRepoCustom {
+
+    List<AttendanceLedger> findByRegistrationIn(List<Registration> registrations);
+
+    // registrations that predate the ledger table and still need a row
+    @Query("select r from Registration r where not exists " +
+           "(select l from AttendanceLedger l where l.registration = r)")
+    List<Registration> findRegistrationsWithoutLedger();
+
+    @Query("select r from Registration r where r.event.id = :eventId and not exists " +
+           "(select l from AttendanceLedger l where l.registration = r)")
+    List<Registration> findRegistrationsWithoutLedgerForEvent(@Param("eventId") Long eventId);
+
+    // attendees of the event who are checked in or paused
+    @Query("select count(l) from AttendanceLedger l where l.registration.event.id = :eventId " +
+           "and l.lastEventType is not null and l.lastEventType <> com.global.hr.Entity.AttendanceEventType.CHECKOUT")
+    long countNotCheckedOutForEvent(@Param("eventId") Long eventId);
+
+    // whole roster of an event in one statement: registration, user and running totals
+    @Query("select new com.global.hr.DTO.AttendeeRosterRow(r.id, u.id, u.name, u.email, r.code, r.createdAt, " +
+           "l.lastEventType, l.lastEventAt, l.accumulatedSeconds, l.openSessionStart) " +
+           "from Registration r join r.user u left join AttendanceLedger l on l.registrationId = r.id " +
+           "where r.event.id = :eventId order by r.id")
+    List<AttendeeRosterRow> findRosterRows(@Param("eventId") Long eventId);
+
+    // registrations per event and last event type (null: no ledger or no scans yet)
+    @Query("select r.event.id, l.lastEventType, count(r) from Registration r " +
+           "left join AttendanceLedger l on l.registrationId = r.id group by r.event.id, l.lastEventType")
+    List<Object[]> countByEventAndLastEventType();
+
+    @Query("select r.event.id, l.lastEventType, count(r) from Registration r " +
+           "left join AttendanceLedger l on l.registrationId = r.id where r.event.id = :eventId " +
+           "group by r.event.id, l.lastEventType")
+    List<Object[]> countByLastEventTypeForEvent(@Param("eventId") Long eventId);
+
+    @Query("select new com.global.hr.DTO.AttendeeRosterRow(r.id, u.id, u.name, u.email, r.code, r.createdAt, " +
+           "l.lastEventType, l.lastEventAt, l.accumulatedSeconds, l.openSessionStart) " +
+           "from Registration r join r.user u left join AttendanceLedger l on l.registrationId = r.id " +
+           "where r.event.id = :eventId and r.id in :registrationIds order by r.id")
+    List<AttendeeRosterRow> findRosterRowsByRegistrationIds(@Param("eventId") Long eventId,
+                                                            @Param("registrationIds") Collection<Long> registrationIds);
+
+    // every registration of a user with its event and running totals, in one statement
+    @Query("select new com.global.hr.DTO.UserDashboardRow(r.id, e, l.accumulatedSeconds, l.openSessionStart, l.checkinCount) " +
+           "from Registration r join r.event e left join AttendanceLedger l on l.registrationId = r.id " +
+           "where r.user.id = :userId")
+    List<UserDashboardRow> findDashboardRows(@Param("userId") Long userId);
+}
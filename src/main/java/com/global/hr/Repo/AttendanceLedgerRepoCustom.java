@@ -0,0 +1,15 @@
+package com.global.hr.Repo;
+
+import java.util.List;
+
+import com.global.hr.DTO.AttendeeRosterQuery;
+import com.global.hr.DTO.AttendeeRosterRow;
+
+public interface AttendanceLedgerRepoCustom {
+
+    /**
+     * Up to query.getLimit() roster rows after the query's cursor, filtered and
+     * ordered in the database.
+     */
+    List<AttendeeRosterRow> findRosterPage(AttendeeRosterQuery query);
+}
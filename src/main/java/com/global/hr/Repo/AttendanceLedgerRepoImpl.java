@@ -0,0 +1,85 @@
+package com.global.hr.Repo;
+
+import java.util.List;
+
+import com.global.hr.DTO.AttendeeRosterQuery;
+import com.global.hr.DTO.AttendeeRosterRow;
+import com.global.hr.Entity.AttendanceEventType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Roster pages are keyset-paginated: the cursor is the sort key of the last
+ * row sent, so a page costs the same however deep into the roster it is.
+ */
+public class AttendanceLedgerRepoImpl implements AttendanceLedgerRepoCustom {
+
+    private static final String ACTIVITY = "coalesce(l.lastEventAt, r.createdAt)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AttendeeRosterRow> findRosterPage(AttendeeRosterQuery query) {
+        StringBuilder jpql = new StringBuilder(
+            "select new com.global.hr.DTO.AttendeeRosterRow(r.id, u.id, u.name, u.email, r.code, r.createdAt, " +
+            "l.lastEventType, l.lastEventAt, l.accumulatedSeconds, l.openSessionStart) " +
+            "from Registration r join r.user u left join AttendanceLedger l on l.registrationId = r.id " +
+            "where r.event.id = :eventId");
+
+        List<AttendanceEventType> statusTypes = null;
+        if (query.getStatus() != null) {
+            switch (query.getStatus()) {
+                case "ACTIVE":
+                    statusTypes = List.of(AttendanceEventType.CHECKIN, AttendanceEventType.RESUME);
+                    break;
+                case "PAUSED":
+                    statusTypes = List.of(AttendanceEventType.PAUSE);
+                    break;
+                case "CHECKED_OUT":
+                    statusTypes = List.of(AttendanceEventType.CHECKOUT);
+                    break;
+                case "REGISTERED":
+                    // no scans yet, or only a manual adjustment
+                    jpql.append(" and (l.lastEventType is null or l.lastEventType = :manual)");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown status: " + query.getStatus());
+            }
+            if (statusTypes != null) jpql.append(" and l.lastEventType in :statusTypes");
+        }
+        if (query.getPrefix() != null) {
+            // case-insensitive through the column collation
+            jpql.append(" and (u.name like :prefix escape '\\' or u.email like :prefix escape '\\')");
+        }
+
+        if (query.isSortByActivity()) {
+            if (query.getAfterRegistrationId() != null) {
+                jpql.append(" and (").append(ACTIVITY).append(" < :afterActivity or (")
+                    .append(ACTIVITY).append(" = :afterActivity and r.id < :afterId))");
+            }
+            jpql.append(" order by ").append(ACTIVITY).append(" desc, r.id desc");
+        } else {
+            if (query.getAfterRegistrationId() != null) jpql.append(" and r.id > :afterId");
+            jpql.append(" order by r.id");
+        }
+
+        TypedQuery<AttendeeRosterRow> typed = entityManager.createQuery(jpql.toString(), AttendeeRosterRow.class)
+            .setParameter("eventId", query.getEventId())
+            .setMaxResults(query.getLimit());
+        if ("REGISTERED".equals(query.getStatus())) typed.setParameter("manual", AttendanceEventType.MANUAL);
+        if (statusTypes != null) typed.setParameter("statusTypes", statusTypes);
+        if (query.getPrefix() != null) typed.setParameter("prefix", escapeLike(query.getPrefix()) + "%");
+        if (query.getAfterRegistrationId() != null) {
+            typed.setParameter("afterId", query.getAfterRegistrationId());
+            if (query.isSortByActivity()) typed.setParameter("afterActivity", query.getAfterActivity());
+        }
+        return typed.getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,40 @@
+package com.global.hr.Repo;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import com.global.hr.Entity.BulkJob;
+import com.global.hr.Entity.BulkJobStatus;
+import com.global.hr.Entity.BulkJobType;
+
+public interface BulkJobRepo extends JpaRepository<BulkJob, Long> {
+
+    List<BulkJob> findByStatusInOrderById(Collection<BulkJobStatus> statuses);
+
+    Optional<BulkJob> findFirstByTypeAndEventIdAndStatusIn(BulkJobType type, Long eventId, Collection<BulkJobStatus> statuses);
+
+    // blocks a concurrent claim until the caller's chunk has committed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from BulkJob j where j.id = :id")
+    Optional<BulkJob> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Take over an unfinished job seen at the given attempt. Returns 0 if another
+     * worker claimed it first.
+     */
+    @Modifying
+    @Query("update BulkJob j set j.status = com.global.hr.Entity.BulkJobStatus.RUNNING, j.attempt = j.attempt + 1, " +
+           "j.startedAt = coalesce(j.startedAt, :now) where j.id = :id and j.attempt = :attempt and j.status in :statuses")
+    int claim(@Param("id") Long id, @Param("attempt") int attempt, @Param("now") Instant now,
+              @Param("statuses") Collection<BulkJobStatus> statuses);
+}
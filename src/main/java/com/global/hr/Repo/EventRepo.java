@@ -1,13 +1,28 @@
 package com.global.hr.Repo;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.global.hr.Entity.Event;
 
+import jakarta.persistence.LockModeType;
+
 
 
 @Repository
 public interface EventRepo  extends JpaRepository<Event, Long> {
 
+    List<Event> findByEventStartTimeBetweenOrderByEventStartTime(LocalDateTime from, LocalDateTime to);
+
+    // held while the event row is deleted, so no registration can be inserted for it meanwhile
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") Long id);
 }
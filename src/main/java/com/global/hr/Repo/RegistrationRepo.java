@@ -2,27 +2,67 @@ package com.global.hr.Repo;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.global.hr.DTO.RegistrationRef;
 import com.global.hr.Entity.Event;
 import com.global.hr.Entity.Registration;
 import com.global.hr.Entity.User;
 import com.global.hr.Entity.RegistrationStatus;
+import java.util.Collection;
 import java.util.List;
 
 import jakarta.persistence.LockModeType;
 
 public interface RegistrationRepo extends JpaRepository <Registration, Long> {
 	boolean existsByUserAndEvent(User user, Event event);
+    long countByEvent_Id(Long eventId);
+
+    @Query("select r.id from Registration r where r.event.id = :eventId order by r.id")
+    List<Long> findIdsByEventId(@Param("eventId") Long eventId, Pageable pageable);
     Optional<Registration> findByIdAndUserId(Long id, Long userId);
     Optional<Registration> findByCode(String code);
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select r from Registration r where r.code = :code")
     Optional<Registration> findByCodeForUpdate(@Param("code") String code);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Registration r where r.id = :id")
+    Optional<Registration> findByIdForUpdate(@Param("id") Long id);
+
+    List<Registration> findByCodeIn(Collection<String> codes);
+
+    // locks taken in id order so concurrent batches cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Registration r where r.code in :codes order by r.id")
+    List<Registration> findByCodeInForUpdate(@Param("codes") Collection<String> codes);
+
+    // codes of an event being deleted no longer resolve
+    @Query("select new com.global.hr.DTO.RegistrationRef(r.id, r.event.id, r.user.id) from Registration r " +
+           "where r.code = :code and r.event.deleting = false")
+    Optional<RegistrationRef> findRefByCode(@Param("code") String code);
+
+    @Query("select r.code from Registration r")
+    List<String> findAllCodes();
+
+    // which of these users already hold a registration for the event
+    @Query("select r.user.id from Registration r where r.event.id = :eventId and r.user.id in :userIds")
+    List<Long> findRegisteredUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Bump the version of every registration of the event. Takes their row locks
+     * (waiting for pessimistic scans in flight) and makes striped scans in flight
+     * fail their version check and retry.
+     */
+    @Modifying
+    @Query("update Registration r set r.version = r.version + 1 where r.event.id = :eventId")
+    int bumpVersionsForEvent(@Param("eventId") Long eventId);
+
     List<Registration> findByEvent(Event event);
     List<Registration> findByUser(User user);
 
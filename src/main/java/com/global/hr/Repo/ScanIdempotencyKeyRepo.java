@@ -0,0 +1,17 @@
+package com.global.hr.Repo;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.global.hr.Entity.ScanIdempotencyKey;
+
+public interface ScanIdempotencyKeyRepo extends JpaRepository<ScanIdempotencyKey, String> {
+
+    @Modifying
+    @Query("delete from ScanIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Instant cutoff);
+}
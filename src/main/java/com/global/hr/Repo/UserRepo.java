@@ -5,10 +5,14 @@ import org.springframework.stereotype.Repository;
 
 import com.global.hr.Entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepo  extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    List<User> findByEmailIn(Collection<String> emails);
+
 }
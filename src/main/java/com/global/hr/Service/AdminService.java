@@ -8,28 +8,19 @@ import com.global.hr.DTO.AdminDtoResponse;
 import com.global.hr.DTO.DashboardStatsResponse;
 import com.global.hr.Entity.Admin;
 import com.global.hr.Repo.AdminRepo;
-import com.global.hr.Repo.RegistrationRepo;
-import com.global.hr.Repo.UserRepo;
-import com.global.hr.Repo.EventRepo;
 
 @Service
 public class AdminService {
 	private final AdminRepo adminRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RegistrationRepo registrationRepo;
-    private final UserRepo userRepo;
-    private final EventRepo eventRepo;
+    private final DashboardCounters dashboardCounters;
     
     public AdminService(AdminRepo adminRepository, 
                        PasswordEncoder passwordEncoder,
-                       RegistrationRepo registrationRepo,
-                       UserRepo userRepo,
-                       EventRepo eventRepo) {
+                       DashboardCounters dashboardCounters) {
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
-        this.registrationRepo = registrationRepo;
-        this.userRepo = userRepo;
-        this.eventRepo = eventRepo;
+        this.dashboardCounters = dashboardCounters;
     }
     
 	public AdminDtoResponse register(AdminDtoRequest dto) {
@@ -58,17 +49,9 @@ public class AdminService {
     }
     
     /**
-     * Get dashboard statistics for admin
+     * Get dashboard statistics for admin, from in-memory counters
      */
     public DashboardStatsResponse getDashboardStats() {
-        long totalEvents = eventRepo.count();
-        long totalRegistrations = registrationRepo.count();
-        long totalUsers = userRepo.count();
-        
-        return new DashboardStatsResponse(
-            totalEvents,
-            totalUsers,
-            totalRegistrations
-        );
+        return dashboardCounters.stats();
     }
 }
@@ -0,0 +1,229 @@
+package com.global.hr.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.global.hr.Entity.Event;
+import com.global.hr.Repo.EventRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Attendee exports for many events at once, as one ZIP with a CSV per event.
+ * The CSVs are generated in parallel on a bounded pool into temporary files
+ * and copied into the archive in the order they finish, so one slow event
+ * does not hold back the others.
+ */
+@Service
+public class ArchiveExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveExportService.class);
+
+    private final EventRepo eventRepo;
+    private final ExportService exportService;
+    private final int maxEvents;
+    private final ExecutorService workers;
+
+    public ArchiveExportService(EventRepo eventRepo, ExportService exportService,
+                                @Value("${export.archive.threads:4}") int threads,
+                                @Value("${export.archive.max-events:200}") int maxEvents) {
+        this.eventRepo = eventRepo;
+        this.exportService = exportService;
+        this.maxEvents = maxEvents;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "export-archive-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Events selected either by id or by start time range (inclusive).
+     */
+    public List<Event> resolveEvents(Collection<Long> eventIds, LocalDateTime from, LocalDateTime to) {
+        List<Event> events;
+        if (eventIds != null && !eventIds.isEmpty()) {
+            // eventIds=1,1 names one event
+            Set<Long> ids = new LinkedHashSet<>(eventIds);
+            events = eventRepo.findAllById(ids);
+            if (events.size() != ids.size()) {
+                throw new IllegalArgumentException("Unknown event ids in " + ids);
+            }
+        } else if (from != null && to != null) {
+            events = eventRepo.findByEventStartTimeBetweenOrderByEventStartTime(from, to);
+        } else {
+            throw new IllegalArgumentException("Pass eventIds or both from and to");
+        }
+        if (events.isEmpty()) throw new IllegalArgumentException("No events selected");
+        if (events.size() > maxEvents) {
+            throw new IllegalArgumentException("Too many events: " + events.size() + " (max " + maxEvents + ")");
+        }
+        return events;
+    }
+
+    /**
+     * Write a ZIP of the events' attendee CSVs. deflateEntries=false stores the
+     * entries as is, for when the whole response is gzip-encoded anyway.
+     */
+    public void writeArchive(List<Event> events, boolean deflateEntries, OutputStream out) throws IOException {
+        CompletionService<EventCsv> completion = new ExecutorCompletionService<>(workers);
+        List<Future<EventCsv>> pending = new ArrayList<>();
+        for (Event event : events) {
+            pending.add(completion.submit(() -> generate(event)));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        boolean finished = false;
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                EventCsv csv = take(completion);
+                try {
+                    if (csv.error != null) {
+                        writeEntry(zip, csv.entryName + ".error.txt", csv.error.getBytes(StandardCharsets.UTF_8), deflateEntries);
+                    } else {
+                        writeEntry(zip, csv.entryName, csv.file, deflateEntries);
+                    }
+                } finally {
+                    if (csv.file != null) Files.deleteIfExists(csv.file);
+                }
+            }
+            zip.finish();
+            finished = true;
+        } finally {
+            if (!finished) abandon(pending);
+        }
+    }
+
+    // client went away or a write failed: stop outstanding work and remove files already written
+    private static void abandon(List<Future<EventCsv>> pending) {
+        for (Future<EventCsv> future : pending) {
+            if (future.cancel(true) || future.isCancelled()) continue;
+            try {
+                deleteQuietly(future.get().file);
+            } catch (ExecutionException | InterruptedException ignored) {
+                // nothing left on disk
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private EventCsv generate(Event event) {
+        String entryName = event.getId() + "_" + event.getEventName().replaceAll("[^a-zA-Z0-9]", "_") + ".csv";
+        Path file = null;
+        try {
+            file = Files.createTempFile("attendees-" + event.getId() + "-", ".csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                exportService.writeAttendeesCsv(event.getId(), writer);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // the archive was abandoned while we were writing
+                deleteQuietly(file);
+                return new EventCsv(entryName, null, "Cancelled");
+            }
+            return new EventCsv(entryName, file, null);
+        } catch (Exception ex) {
+            log.warn("Export of event {} failed", event.getId(), ex);
+            deleteQuietly(file);
+            return new EventCsv(entryName, null, "Export failed: " + ex.getMessage());
+        }
+    }
+
+    private static EventCsv take(CompletionService<EventCsv> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting", ex);
+        } catch (ExecutionException ex) {
+            // generate() reports its own failures, so this is unexpected
+            throw new IOException("Export task failed", ex.getCause());
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, Path file, boolean deflate) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (!deflate) {
+            // stored entries need their size and checksum before the data
+            CRC32 crc = new CRC32();
+            try (InputStream in = Files.newInputStream(file)) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) > 0) crc.update(buffer, 0, n);
+            }
+            long size = Files.size(file);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        Files.copy(file, zip);
+        zip.closeEntry();
+        zip.flush();
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] data, boolean deflate) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (!deflate) {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(data);
+        zip.closeEntry();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // temp dir is cleaned up eventually
+        }
+    }
+
+    private static final class EventCsv {
+        final String entryName;
+        final Path file;
+        final String error;
+
+        EventCsv(String entryName, Path file, String error) {
+            this.entryName = entryName;
+            this.file = file;
+            this.error = error;
+        }
+    }
+}
@@ -1,100 +1,388 @@
 package com.global.hr.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.Supplier;
 import jakarta.persistence.LockModeType;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.global.hr.DTO.AttendanceDtoResponse;
+import com.global.hr.DTO.BulkChunkResult;
 import com.global.hr.DTO.BulkCheckoutResponse;
 import com.global.hr.DTO.EventAttendeeResponse;
 import com.global.hr.DTO.AttendeeDashboardStatsResponse;
+import com.global.hr.DTO.AttendeeRosterChanges;
+import com.global.hr.DTO.AttendeeRosterPage;
+import com.global.hr.DTO.AttendeeRosterQuery;
+import com.global.hr.DTO.AttendeeRosterRow;
 import com.global.hr.DTO.RecentActivityResponse;
+import com.global.hr.DTO.RegistrationRef;
+import com.global.hr.DTO.ScanBatchItemResponse;
+import com.global.hr.DTO.ScanDtoRequest;
+import com.global.hr.DTO.UserDashboardRow;
 import com.global.hr.Entity.AttendanceEvent;
 import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.Entity.AttendanceIntervals;
+import com.global.hr.Entity.AttendanceLedger;
 import com.global.hr.Entity.Event;
 import com.global.hr.Entity.Registration;
 import com.global.hr.Entity.RegistrationStatus;
+import com.global.hr.Entity.ScanIdempotencyKey;
 import com.global.hr.Entity.User;
 import com.global.hr.Repo.AttendanceEventRepo;
+import com.global.hr.Repo.AttendanceLedgerRepo;
 import com.global.hr.Repo.RegistrationRepo;
 import com.global.hr.Repo.EventRepo;
 import com.global.hr.Repo.UserRepo;
+import com.global.hr.events.AttendanceRecordedEvent;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AttendanceService {
+    private static final int MAX_ROSTER_PAGE = 500;
+    private static final int RECENT_ACTIVITY_LIMIT = 5;
+
 	private final RegistrationRepo registrationRepo;
     private final AttendanceEventRepo eventRepo;
     private final EventRepo eventRepository;
     private final UserRepo userRepository;
+    private final AttendanceLedgerRepo ledgerRepo;
+    private final ScanIdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchChunkSize;
+    private final int batchMaxItems;
+    private final ScanLockStripes scanLocks;
+    private final int maxOptimisticRetries;
+    private final ScanWriteBehindService writeBehind;
+    private final RegistrationCodeCache codeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CreditPolicyService creditPolicies;
+    private final Duration changesOverlap;
 
     public AttendanceService(RegistrationRepo registrationRepo,
-                             AttendanceEventRepo eventRepo, EventRepo eventRepository, UserRepo userRepository) {
+                             AttendanceEventRepo eventRepo, EventRepo eventRepository, UserRepo userRepository,
+                             AttendanceLedgerRepo ledgerRepo, ScanIdempotencyService idempotencyService,
+                             TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                             @Value("${scan.batch.chunk-size:200}") int batchChunkSize,
+                             @Value("${scan.batch.max-items:5000}") int batchMaxItems,
+                             ScanLockStripes scanLocks,
+                             @Value("${scan.concurrency.max-retries:3}") int maxOptimisticRetries,
+                             ScanWriteBehindService writeBehind,
+                             RegistrationCodeCache codeCache,
+                             ApplicationEventPublisher eventPublisher,
+                             CreditPolicyService creditPolicies,
+                             @Value("${roster.changes-overlap-ms:30000}") long changesOverlapMs) {
         this.registrationRepo = registrationRepo;
         this.eventRepo = eventRepo;
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
+        this.ledgerRepo = ledgerRepo;
+        this.idempotencyService = idempotencyService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxItems = batchMaxItems;
+        this.scanLocks = scanLocks;
+        this.maxOptimisticRetries = maxOptimisticRetries;
+        this.writeBehind = writeBehind;
+        this.codeCache = codeCache;
+        this.eventPublisher = eventPublisher;
+        this.creditPolicies = creditPolicies;
+        this.changesOverlap = Duration.ofMillis(changesOverlapMs);
     }
-    @Transactional
     public AttendanceDtoResponse handleScanByCode(String code, String action, String idempotencyKey) {
-        // load registration by code, with pessimistic lock to avoid race conditions:
-        Registration reg = registrationRepo.findByCodeForUpdate(code)
+        // garbage codes stop at the Bloom filter, known ones resolve from the LRU
+        RegistrationRef ref = codeCache.lookup(code)
             .orElseThrow(() -> new IllegalArgumentException("Invalid code"));
 
-        // Simple dedup/idempotency: check last event's meta for idempotencyKey
-        AttendanceEvent last = eventRepo.findFirstByRegistrationOrderByCreatedAtDesc(reg);
-
-        // decide eventType
-        AttendanceEventType newType = decideNextEventType(reg, last, action);
+        // retries of a recent scan are answered from memory without touching the registration lock
+        if (idempotencyKey != null) {
+            Optional<AttendanceDtoResponse> replay = idempotencyService.findCached(idempotencyKey, code);
+            if (replay.isPresent()) return replay.get();
+        }
 
-        // optionally check idempotency: if last != null and last.eventType == newType and last.meta == idempotencyKey --> return
-        if (last != null  && idempotencyKey != null ) {
-            // already applied
-        	String lastKey = null;
-            try {
-                // Parse JSON in last.getMeta() to extract the idempotency value
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode root = mapper.readTree(last.getMeta());
-                lastKey = root.path("idempotency").asText(null);
-            } catch (Exception e) {
-                // if parsing fails, ignore and lastKey stays null
+        if (writeBehind.isEnabled()) {
+            // acknowledge from in-memory state; the event is written by the background flusher
+            if (idempotencyKey != null) {
+                Optional<AttendanceDtoResponse> replay = idempotencyService.find(idempotencyKey, code);
+                if (replay.isPresent()) return replay.get();
             }
+            return writeBehind.append(ref.getEventId(), ref.getRegistrationId(), code, idempotencyKey, metaFor(idempotencyKey),
+                lastType -> decideNextEventType(lastType, action),
+                ledger -> creditHours(creditPolicies.forEvent(ref.getEventId()), ledger, Instant.now()));
+        }
 
-            if (idempotencyKey.equals(lastKey)) {
-                // already applied → return existing result
-                Duration total = computeTotalActiveTimeForRegistration(reg);
-                double creditHours = computeCreditHours(total.getSeconds());
-                return new AttendanceDtoResponse(creditHours, reg.getId(), last.getEventType());
+        Long registrationId = ref.getRegistrationId();
+        try {
+            if (!scanLocks.isStriped()) {
+                return transactionTemplate.execute(status -> applyScan(registrationId, code, action, idempotencyKey));
             }
+            // striped mode: serialize scans of this code within the node, let @Version catch the rest
+            return scanLocks.withLocks(List.of(code), () ->
+                retryOnVersionConflict(() -> transactionTemplate.execute(status -> applyScan(registrationId, code, action, idempotencyKey))));
+        } catch (DataIntegrityViolationException ex) {
+            // another request stored the same key first (with this code or another); our scan was rolled back
+            if (idempotencyKey == null) throw ex;
+            return idempotencyService.resolveConflict(idempotencyKey, code, ex);
+        }
+    }
+
+    // the registration was resolved from the code already; it is loaded by primary key
+    private AttendanceDtoResponse applyScan(Long registrationId, String code, String action, String idempotencyKey) {
+        Registration reg;
+        if (scanLocks.isStriped()) {
+            reg = registrationRepo.findById(registrationId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid code"));
+        } else {
+            // load registration with pessimistic lock to avoid race conditions:
+            long lockStart = System.nanoTime();
+            reg = registrationRepo.findByIdForUpdate(registrationId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid code"));
+            scanLocks.recordWait(System.nanoTime() - lockStart);
+        }
+        if (reg.getEvent().isDeleting()) throw new IllegalArgumentException("Event is being deleted");
+
+        // check again under the lock: a concurrent retry may have just committed
+        if (idempotencyKey != null) {
+            Optional<AttendanceDtoResponse> replay = idempotencyService.find(idempotencyKey, code);
+            if (replay.isPresent()) return replay.get();
         }
 
+        // running totals for this registration, guarded by the same lock as the registration
+        AttendanceLedger ledger = ledgerFor(reg);
+
+        // decide eventType
+        AttendanceEventType newType = decideNextEventType(ledger.getLastEventType(), action);
+
         // create new event
         AttendanceEvent ev = new AttendanceEvent();
         ev.setRegistration(reg);
         ev.setEventType(newType);
-        ev.setMeta(idempotencyKey == null ? null : "{\"idempotency\":\"" + idempotencyKey + "\"}");
+        ev.setMeta(metaFor(idempotencyKey));
         eventRepo.save(ev);
 
-//        // optionally update registration.status (redundant since we can compute from events, but useful)
-//        reg.setStatus(statusFromEventsAfter(reg));
-//        registrationRepo.save(reg);
+        AttendanceEventType previousType = ledger.getLastEventType();
+        ledger.apply(newType, ev.getCreatedAt());
+        ledgerRepo.save(ledger);
+
+        // keep registration.status current; this also bumps its version for optimistic checks
+        reg.setStatus(statusFor(newType));
+        registrationRepo.save(reg);
+        eventPublisher.publishEvent(new AttendanceRecordedEvent(reg.getEvent().getId(), reg.getId(), newType, previousType, ev.getCreatedAt()));
+
+        double creditHours = creditHours(creditPolicies.forEvent(reg.getEvent().getId()), ledger, Instant.now());
+        AttendanceDtoResponse response = new AttendanceDtoResponse(creditHours, reg.getId(), ev.getEventType());
+        if (idempotencyKey != null) {
+            idempotencyService.record(idempotencyKey, code, response);
+        }
+        return response;
+    }
+
+    /**
+     * Apply an ordered upload of scans from a scanner device. Items are processed in
+     * chunks, each chunk in its own transaction, and every item gets its own result.
+     */
+    public List<ScanBatchItemResponse> handleScanBatch(List<ScanDtoRequest> scans) {
+        if (scans.size() > batchMaxItems) {
+            throw new IllegalArgumentException("Batch too large: " + scans.size() + " items (max " + batchMaxItems + ")");
+        }
+        // queued write-behind scans land first, and none are accepted until the upload is written
+        return writeBehind.exclusively(() -> applyScanBatch(scans));
+    }
+
+    private List<ScanBatchItemResponse> applyScanBatch(List<ScanDtoRequest> scans) {
+        List<ScanBatchItemResponse> results = new ArrayList<>(scans.size());
+        for (int from = 0; from < scans.size(); from += batchChunkSize) {
+            int offset = from;
+            List<ScanDtoRequest> chunk = scans.subList(from, Math.min(from + batchChunkSize, scans.size()));
+            List<String> codes = chunk.stream().map(ScanDtoRequest::getCode).toList();
+            Supplier<List<ScanBatchItemResponse>> apply = () -> transactionTemplate.execute(status -> applyScanChunk(chunk, offset));
+            try {
+                results.addAll(scanLocks.isStriped()
+                    ? scanLocks.withLocks(codes, () -> retryOnVersionConflict(apply))
+                    : apply.get());
+            } catch (RuntimeException ex) {
+                // the whole chunk rolled back; report every item so the device can retry them
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(ScanBatchItemResponse.error(offset + i, chunk.get(i).code, "Batch chunk failed: " + ex.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<ScanBatchItemResponse> applyScanChunk(List<ScanDtoRequest> chunk, int offset) {
+        Set<String> codes = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (ScanDtoRequest scan : chunk) {
+            // no filter check here: the lookup below resolves the whole chunk in one query anyway
+            if (scan.code != null) codes.add(scan.code);
+            if (scan.idempotencyKey != null) keys.add(scan.idempotencyKey);
+        }
+
+        // lock every registration in the chunk up front instead of once per scan
+        List<Registration> registrations;
+        if (scanLocks.isStriped()) {
+            registrations = registrationRepo.findByCodeIn(codes);
+        } else {
+            long lockStart = System.nanoTime();
+            registrations = registrationRepo.findByCodeInForUpdate(codes);
+            scanLocks.recordWait(System.nanoTime() - lockStart);
+        }
+        Map<String, Registration> regsByCode = new HashMap<>();
+        for (Registration reg : registrations) {
+            regsByCode.put(reg.getCode(), reg);
+        }
+        Map<Long, AttendanceLedger> ledgers = ledgersByRegistrationId(new ArrayList<>(regsByCode.values()));
+        Map<String, ScanIdempotencyKey> storedKeys = keys.isEmpty() ? Map.of() : idempotencyService.findStored(keys);
+        Map<String, ScanBatchItemResponse> appliedKeys = new HashMap<>();
+
+        List<AttendanceEvent> inserts = new ArrayList<>();
+        List<ScanBatchItemResponse> results = new ArrayList<>(chunk.size());
+        Instant now = Instant.now();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ScanDtoRequest scan = chunk.get(i);
+            int index = offset + i;
+            Registration reg = scan.code == null ? null : regsByCode.get(scan.code);
+            if (reg == null) {
+                results.add(ScanBatchItemResponse.error(index, scan.code, "Invalid code"));
+                continue;
+            }
+            try {
+                if (reg.getEvent().isDeleting()) throw new IllegalArgumentException("Event is being deleted");
+                String key = scan.idempotencyKey;
+                if (key != null) {
+                    // retried within this upload
+                    ScanBatchItemResponse earlier = appliedKeys.get(key);
+                    if (earlier != null) {
+                        if (!earlier.getCode().equals(scan.code)) {
+                            throw new IllegalArgumentException("Idempotency key already used for a different code");
+                        }
+                        results.add(new ScanBatchItemResponse(index, scan.code, "DUPLICATE", earlier.getRegistrationId(),
+                            earlier.getStatus(), earlier.getCreditHours(), null));
+                        continue;
+                    }
+                    // retried from an earlier upload or a single scan
+                    ScanIdempotencyKey stored = storedKeys.get(key);
+                    Optional<AttendanceDtoResponse> replay = stored == null ? Optional.empty() : idempotencyService.replayOf(stored, scan.code);
+                    if (replay.isPresent()) {
+                        results.add(ScanBatchItemResponse.duplicate(index, scan.code, replay.get()));
+                        continue;
+                    }
+                }
+
+                AttendanceLedger ledger = ledgers.get(reg.getId());
+                if (ledger == null) {
+                    ledger = rebuildLedger(reg);
+                    ledgers.put(reg.getId(), ledger);
+                }
+                AttendanceEventType newType = decideNextEventType(ledger.getLastEventType(), scan.action);
+                Instant at = scanTime(scan.clientTimestamp, ledger.getLastEventAt(), now);
+
+                AttendanceEvent ev = new AttendanceEvent();
+                ev.setRegistration(reg);
+                ev.setEventType(newType);
+                ev.setCreatedAt(at);
+                ev.setMeta(metaFor(key));
+                inserts.add(ev);
+                AttendanceEventType previousType = ledger.getLastEventType();
+                ledger.apply(newType, at);
+                reg.setStatus(statusFor(newType));
+                eventPublisher.publishEvent(new AttendanceRecordedEvent(reg.getEvent().getId(), reg.getId(), newType, previousType, at));
 
-        Duration totalActive = computeTotalActiveTimeForRegistration(reg);
-        double creditHours = computeCreditHours(totalActive.getSeconds());
-        return new AttendanceDtoResponse(creditHours, reg.getId(), ev.getEventType());
+                AttendanceDtoResponse response = new AttendanceDtoResponse(
+                    creditHours(creditPolicies.forEvent(reg.getEvent().getId()), ledger, now), reg.getId(), newType);
+                ScanBatchItemResponse result = ScanBatchItemResponse.applied(index, scan.code, response);
+                if (key != null) {
+                    idempotencyService.record(key, scan.code, response);
+                    appliedKeys.put(key, result);
+                }
+                results.add(result);
+            } catch (IllegalArgumentException ex) {
+                results.add(ScanBatchItemResponse.error(index, scan.code, ex.getMessage()));
+            }
+        }
+
+        insertAttendanceEvents(inserts);
+        return results;
+    }
+
+    /**
+     * Run a scan transaction again when another node updated the same registration
+     * first. Only used in striped mode, where the database does no row locking.
+     */
+    private <T> T retryOnVersionConflict(Supplier<T> scanTransaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return scanTransaction.get();
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                if (attempt >= maxOptimisticRetries) throw ex;
+                scanLocks.recordOptimisticRetry();
+            }
+        }
     }
-    private AttendanceEventType decideNextEventType(Registration reg, AttendanceEvent last, String action) {
+
+    // Device clocks drift: never accept a time in the future or one that would reorder the history
+    private Instant scanTime(Instant clientTimestamp, Instant lastEventAt, Instant now) {
+        Instant at = clientTimestamp == null || clientTimestamp.isAfter(now) ? now : clientTimestamp;
+        if (lastEventAt != null && at.isBefore(lastEventAt)) at = lastEventAt;
+        return at;
+    }
+
+    /**
+     * Insert attendance events as one JDBC batch. IDENTITY ids keep Hibernate from
+     * batching these, so they bypass the entity manager. Instants are bound in UTC
+     * the same way Hibernate writes them.
+     */
+    private void insertAttendanceEvents(List<AttendanceEvent> events) {
+        if (events.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+            "insert into attendance_events (created_at, event_type, meta, registration_id) values (?, ?, ?, ?)",
+            events, events.size(),
+            (ps, ev) -> {
+                ps.setTimestamp(1, Timestamp.from(ev.getCreatedAt()), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+                ps.setString(2, ev.getEventType().name());
+                ps.setString(3, ev.getMeta());
+                ps.setLong(4, ev.getRegistration().getId());
+            });
+    }
+
+    private String metaFor(String idempotencyKey) {
+        return idempotencyKey == null ? null : "{\"idempotency\":\"" + idempotencyKey + "\"}";
+    }
+
+    private AttendanceEventType decideNextEventType(AttendanceEventType lastType, String action) {
         if (action != null) {
             try {
                 return AttendanceEventType.valueOf(action);
@@ -103,8 +391,8 @@ public class AttendanceService {
             }
         }
         // toggle logic:
-        if (last == null) return AttendanceEventType.CHECKIN;
-        switch (last.getEventType()) {
+        if (lastType == null) return AttendanceEventType.CHECKIN;
+        switch (lastType) {
             case CHECKIN: case RESUME: return AttendanceEventType.PAUSE;
             case PAUSE: return AttendanceEventType.RESUME;
             case CHECKOUT: return AttendanceEventType.CHECKIN; // re-checkin allowed
@@ -113,170 +401,324 @@ public class AttendanceService {
     }
     @Transactional(readOnly = true)
     public Duration computeTotalActiveTimeForRegistration(Registration reg) {
-        List<AttendanceEvent> events = eventRepo.findByRegistrationOrderByCreatedAtAsc(reg);
-        Instant activeStart = null;
-        long totalSeconds = 0L;
-        
-        for (AttendanceEvent ev : events) {
-            switch (ev.getEventType()) {
-                case CHECKIN:
-                case RESUME:
-                    if (activeStart == null) activeStart = ev.getCreatedAt();
-                    break;
-                case PAUSE:
-                case CHECKOUT:
-                case MANUAL:
-                    if (activeStart != null) {
-                        totalSeconds += Duration.between(activeStart, ev.getCreatedAt()).getSeconds();
-                        activeStart = null;
-                    }
-                    break;
-            }
+        // if still active (CHECKIN or RESUME was the last action), the ledger counts until now
+        long totalSeconds = ledgerRepo.findById(reg.getId())
+            .map(ledger -> ledger.totalSecondsAt(Instant.now()))
+            .orElse(0L);
+        return Duration.ofSeconds(totalSeconds);
+    }
+
+    /**
+     * Ledger row for a registration, rebuilt from the event history if it is missing.
+     */
+    private AttendanceLedger ledgerFor(Registration reg) {
+        return ledgerRepo.findById(reg.getId()).orElseGet(() -> rebuildLedger(reg));
+    }
+
+    private AttendanceLedger rebuildLedger(Registration reg) {
+        AttendanceLedger ledger = new AttendanceLedger(reg);
+        for (AttendanceEvent ev : eventRepo.findByRegistrationOrderByCreatedAtAsc(reg)) {
+            ledger.apply(ev.getEventType(), ev.getCreatedAt());
         }
-        
-        // if still active (CHECKIN or RESUME was the last action), count until now
-        if (activeStart != null) {
-            long currentSessionSeconds = Duration.between(activeStart, Instant.now()).getSeconds();
-            totalSeconds += currentSessionSeconds;
-            
-            // Debug logging
-            System.out.println("Registration " + reg.getCode() + " is currently active:");
-            System.out.println("  Active since: " + activeStart);
-            System.out.println("  Current session: " + currentSessionSeconds + " seconds");
-            System.out.println("  Total accumulated: " + totalSeconds + " seconds");
+        return ledgerRepo.save(ledger);
+    }
+
+    /**
+     * Create ledger rows for registrations made before the ledger existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLedgers() {
+        for (Registration reg : ledgerRepo.findRegistrationsWithoutLedger()) {
+            rebuildLedger(reg);
         }
-        
-        return Duration.ofSeconds(totalSeconds);
     }
-    private RegistrationStatus statusFromEventsAfter(Registration reg) {
-        AttendanceEvent last = eventRepo.findFirstByRegistrationOrderByCreatedAtDesc(reg);
-        if (last == null) return RegistrationStatus.REGISTERED;
-        switch (last.getEventType()) {
+
+    private Map<Long, AttendanceLedger> ledgersByRegistrationId(List<Registration> registrations) {
+        return ledgerRepo.findByRegistrationIn(registrations).stream()
+            .collect(Collectors.toMap(AttendanceLedger::getRegistrationId, Function.identity()));
+    }
+    private RegistrationStatus statusFor(AttendanceEventType lastType) {
+        switch (lastType) {
             case CHECKIN: case RESUME: return RegistrationStatus.CHECKED_IN;
             case PAUSE: return RegistrationStatus.PAUSED;
             case CHECKOUT: return RegistrationStatus.CHECKED_OUT;
             default: return RegistrationStatus.REGISTERED;
         }
     }
-    public double computeCreditHours(long totalSeconds) {
-        // Debug logging
-        System.out.println("Computing credit hours for " + totalSeconds + " seconds");
-        
-        // For debugging, let's show the actual time even if it's less than 15 minutes
-        double hours = totalSeconds / 3600.0;   // convert seconds → hours
-        
-        if (totalSeconds < 15 * 60) {
-            System.out.println("  Less than 15 minutes, but returning actual hours for debugging: " + hours);
-            return hours; // Return actual hours for debugging instead of 0.0
-        }
-        
-        double roundedHours = Math.round(hours * 4.0) / 4.0;   // round to nearest 0.25 hr (15 mins)
-        
-        System.out.println("  Raw hours: " + hours);
-        System.out.println("  Rounded hours: " + roundedHours);
-        
-        return roundedHours;
+    private static double creditHours(CreditPolicy policy, AttendanceLedger ledger, Instant now) {
+        return policy.hours(ledger.getAccumulatedSeconds(), epochSecondOrNone(ledger.getOpenSessionStart()), now.getEpochSecond());
     }
 
+    private static long epochSecondOrNone(Instant instant) {
+        return instant == null ? AttendanceIntervals.NONE : instant.getEpochSecond();
+    }
 
-    @Transactional
+
+    /**
+     * Check out every registration of the event whose last event is not already
+     * CHECKOUT. Runs as a handful of set-based statements rather than per attendee.
+     */
     public BulkCheckoutResponse checkoutAllAttendeesForEvent(Long eventId) {
+        // queued write-behind scans land before we read the ledgers, and wait until we commit
+        return writeBehind.exclusively(() -> transactionTemplate.execute(status -> checkoutAll(eventId)));
+    }
+
+    private BulkCheckoutResponse checkoutAll(Long eventId) {
         // Find the event
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
         
-        // Get all registrations for this event
-        List<Registration> registrations = registrationRepo.findByEvent(event);
+        // Lock the event's registrations in id order, the same lock synchronous scans take
+        List<Long> registrationIds = jdbcTemplate.queryForList(
+            "select id from registrations where event_id = ? order by id for update", Long.class, event.getId());
         
-        int processedCount = 0;
-        int alreadyCheckedOutCount = 0;
+        Instant checkoutAt = Instant.now();
+        int processedCount = checkoutRegistrations(event.getId(), 0L, Long.MAX_VALUE, checkoutAt);
         
-        for (Registration registration : registrations) {
-            // Check the last attendance event for this registration
-            AttendanceEvent lastEvent = eventRepo.findFirstByRegistrationOrderByCreatedAtDesc(registration);
-            
-            // If there's no event or the last event is not CHECKOUT, create a checkout event
-            if (lastEvent == null || lastEvent.getEventType() != AttendanceEventType.CHECKOUT) {
-                AttendanceEvent checkoutEvent = new AttendanceEvent();
-                checkoutEvent.setRegistration(registration);
-                checkoutEvent.setEventType(AttendanceEventType.CHECKOUT);
-                checkoutEvent.setMeta("{\"admin_bulk_checkout\": true}");
-                eventRepo.save(checkoutEvent);
-                processedCount++;
-            } else {
-                alreadyCheckedOutCount++;
-            }
+        if (processedCount > 0) {
+            // one message for the whole operation rather than one per attendee
+            eventPublisher.publishEvent(new AttendanceRecordedEvent(
+                eventId, null, AttendanceEventType.CHECKOUT, null, checkoutAt, processedCount));
         }
         
         return new BulkCheckoutResponse(
             eventId, 
-            registrations.size(), 
+            registrationIds.size(), 
             processedCount, 
-            alreadyCheckedOutCount
+            registrationIds.size() - processedCount
         );
     }
 
+    /**
+     * One chunk of a background bulk checkout: the next registrations of the
+     * event after afterId, in id order, in the caller's transaction. The caller
+     * runs it under ScanWriteBehindService.exclusively so that queued scans
+     * cannot overwrite the chunk.
+     */
+    @Transactional
+    public BulkChunkResult checkoutChunk(Long eventId, long afterId, int limit) {
+        List<Long> registrationIds = jdbcTemplate.queryForList(
+            "select id from registrations where event_id = ? and id > ? order by id limit ? for update",
+            Long.class, eventId, afterId, limit);
+        if (registrationIds.isEmpty()) return new BulkChunkResult(0, 0, afterId);
+
+        Long lastId = registrationIds.get(registrationIds.size() - 1);
+        Instant checkoutAt = Instant.now();
+        int processedCount = checkoutRegistrations(eventId, registrationIds.get(0), lastId, checkoutAt);
+        if (processedCount > 0) {
+            eventPublisher.publishEvent(new AttendanceRecordedEvent(
+                eventId, null, AttendanceEventType.CHECKOUT, null, checkoutAt, processedCount));
+        }
+        return new BulkChunkResult(registrationIds.size(), processedCount, lastId);
+    }
+
+    /**
+     * Check out the event's registrations with ids in [fromId, toId] that are not
+     * checked out yet; the caller holds their row locks. Returns how many were.
+     */
+    private int checkoutRegistrations(Long eventId, long fromId, long toId, Instant checkoutAt) {
+        // the statements below only see registrations that have a ledger row
+        for (Registration reg : ledgerRepo.findRegistrationsWithoutLedgerForEvent(eventId)) {
+            rebuildLedger(reg);
+        }
+        ledgerRepo.flush();
+        
+        Timestamp at = Timestamp.from(checkoutAt);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        String notCheckedOut = "(l.last_event_type is null or l.last_event_type <> 'CHECKOUT')";
+        
+        // status first, while the ledgers still tell which registrations are affected; bumps versions for striped scans
+        jdbcTemplate.update(
+            "update registrations r set r.status = 'CHECKED_OUT', r.version = r.version + 1 " +
+            "where r.event_id = ? and r.id between ? and ? " +
+            "and exists (select 1 from attendance_ledgers l where l.registration_id = r.id and " + notCheckedOut + ")",
+            eventId, fromId, toId);
+        
+        int processedCount = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "insert into attendance_events (created_at, event_type, meta, registration_id) " +
+                "select ?, 'CHECKOUT', '{\"admin_bulk_checkout\": true}', l.registration_id from attendance_ledgers l " +
+                "join registrations r on r.id = l.registration_id " +
+                "where r.event_id = ? and r.id between ? and ? and " + notCheckedOut);
+            ps.setTimestamp(1, at, utc);
+            ps.setLong(2, eventId);
+            ps.setLong(3, fromId);
+            ps.setLong(4, toId);
+            return ps;
+        });
+        
+        // single-table update so the assignments run left to right: the open session is closed before it is cleared
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "update attendance_ledgers l set " +
+                "l.accumulated_seconds = l.accumulated_seconds + coalesce(timestampdiff(SECOND, l.open_session_start, ?), 0), " +
+                "l.open_session_start = null, l.last_event_type = 'CHECKOUT', l.last_event_at = ?, " +
+                "l.event_count = l.event_count + 1 " +
+                "where l.registration_id in (select r.id from registrations r where r.event_id = ? and r.id between ? and ?) " +
+                "and " + notCheckedOut);
+            ps.setTimestamp(1, at, utc);
+            ps.setTimestamp(2, at, utc);
+            ps.setLong(3, eventId);
+            ps.setLong(4, fromId);
+            ps.setLong(5, toId);
+            return ps;
+        });
+        return processedCount;
+    }
+
     @Transactional(readOnly = true)
     public List<EventAttendeeResponse> getEventAttendees(Long eventId) {
-        // Find the event
+        // the event is loaded (not just checked) because its credit policy may be needed
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
-        
-        // Get all registrations for this event
-        List<Registration> registrations = registrationRepo.findByEvent(event);
-        
-        return registrations.stream()
-            .map(reg -> {
-                // Get the last attendance event for this registration
-                AttendanceEvent lastEvent = eventRepo.findFirstByRegistrationOrderByCreatedAtDesc(reg);
-                
-                // Calculate total active time
-                Duration totalActive = computeTotalActiveTimeForRegistration(reg);
-                double creditHours = computeCreditHours(totalActive.getSeconds());
-                
-                // Debug logging for this registration
-                System.out.println("Registration " + reg.getCode() + " (" + reg.getUser().getName() + "):");
-                System.out.println("  Total active duration: " + totalActive);
-                System.out.println("  Credit hours: " + creditHours);
-                
-                // Determine current status and last action
-                String currentStatus = "REGISTERED";
-                String lastAction = "NONE";
-                Instant lastActivity = reg.getCreatedAt();
-                
-                if (lastEvent != null) {
-                    lastActivity = lastEvent.getCreatedAt();
-                    lastAction = lastEvent.getEventType().toString();
-                    
-                    switch (lastEvent.getEventType()) {
-                        case CHECKIN:
-                        case RESUME:
-                            currentStatus = "ACTIVE";
-                            break;
-                        case PAUSE:
-                            currentStatus = "PAUSED";
-                            break;
-                        case CHECKOUT:
-                            currentStatus = "CHECKED_OUT";
-                            break;
-                        default:
-                            currentStatus = "REGISTERED";
-                    }
-                }
-                
-                return new EventAttendeeResponse(
-                    reg.getId(),
-                    reg.getUser().getId(),
-                    reg.getUser().getName(),
-                    reg.getUser().getEmail(),
-                    reg.getCode(),
-                    currentStatus,
-                    lastActivity,
-                    creditHours,
-                    lastAction
-                );
-            })
-            .toList();
+
+        // One join over registrations, users and ledgers, however many attendees there are
+        return toAttendeeResponses(event, ledgerRepo.findRosterRows(eventId), Instant.now());
+    }
+
+    /**
+     * One page of the roster, filtered by current status and name/email prefix.
+     * Sorted by registration id, or by last activity (newest first) when byActivity is set.
+     */
+    @Transactional(readOnly = true)
+    public AttendeeRosterPage getEventAttendeesPage(Long eventId, String status, String prefix,
+                                                    boolean byActivity, String cursor, int limit) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+        int pageSize = Math.max(1, Math.min(limit, MAX_ROSTER_PAGE));
+        Instant afterActivity = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            if (byActivity != (parts.length == 2)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            afterId = Long.valueOf(parts[parts.length - 1]);
+            if (byActivity) afterActivity = Instant.parse(parts[0]);
+        }
+
+        // one extra row tells us whether there is a next page
+        List<AttendeeRosterRow> rows = ledgerRepo.findRosterPage(new AttendeeRosterQuery(
+            eventId,
+            status == null || status.isBlank() ? null : status.trim().toUpperCase(),
+            prefix == null || prefix.isBlank() ? null : prefix.trim(),
+            byActivity, afterActivity, afterId, pageSize + 1));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AttendeeRosterRow last = rows.get(pageSize - 1);
+            nextCursor = byActivity
+                ? encodeCursor(activityOf(last) + "|" + last.getRegistrationId())
+                : encodeCursor(String.valueOf(last.getRegistrationId()));
+        }
+        return new AttendeeRosterPage(toAttendeeResponses(event, rows, Instant.now()), nextCursor);
+    }
+
+    /**
+     * Roster rows of registrations that got a new attendance event after the
+     * cursor, plus the cursor to send next time. Without a cursor the whole
+     * roster is returned. The cursor is an attendance_events id, so a poll reads
+     * the events recorded since the previous one.
+     *
+     * Ids are handed out at insert, not at commit: a scan can take id 100, the
+     * next one id 101 and commit first, so a poll may hand out cursor 101 while
+     * 100 is still invisible. Each poll therefore also re-reads the events
+     * recorded within roster.changes-overlap-ms before the cursor's own event
+     * (which was written before that poll), so a row committing late is still
+     * reported once it is visible. Registrations may come back more than once.
+     */
+    @Transactional(readOnly = true)
+    public AttendeeRosterChanges getEventAttendeeChanges(Long eventId, Long since) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+        // read the high-water mark first so nothing between it and the scan below is skipped
+        long cursor = eventRepo.findMaxId();
+        Instant now = Instant.now();
+        if (since == null) {
+            return new AttendeeRosterChanges(toAttendeeResponses(event, ledgerRepo.findRosterRows(eventId), now), cursor);
+        }
+
+        Set<Long> changed = new LinkedHashSet<>();
+        if (since < cursor) changed.addAll(eventRepo.findRegistrationIdsChangedBetween(eventId, since, cursor));
+        List<Instant> anchor = eventRepo.findCreatedAtAtOrBefore(Math.min(since, cursor), PageRequest.of(0, 1));
+        if (!anchor.isEmpty()) {
+            changed.addAll(eventRepo.findRegistrationIdsRecordedSince(eventId, anchor.get(0).minus(changesOverlap), cursor));
+        }
+        long next = Math.max(since, cursor);
+        if (changed.isEmpty()) {
+            return new AttendeeRosterChanges(List.of(), next);
+        }
+        return new AttendeeRosterChanges(
+            toAttendeeResponses(event, ledgerRepo.findRosterRowsByRegistrationIds(eventId, changed), now), next);
+    }
+
+    private static Instant activityOf(AttendeeRosterRow row) {
+        return row.getLastEventAt() != null ? row.getLastEventAt() : row.getRegisteredAt();
+    }
+
+    private static String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // credit hours for all rows are computed in one pass with the event's policy
+    private List<EventAttendeeResponse> toAttendeeResponses(Event event, List<AttendeeRosterRow> rows, Instant now) {
+        int count = rows.size();
+        long[] closedSeconds = new long[count];
+        long[] openSince = new long[count];
+        for (int i = 0; i < count; i++) {
+            AttendeeRosterRow row = rows.get(i);
+            closedSeconds[i] = row.getAccumulatedSeconds() == null ? 0L : row.getAccumulatedSeconds();
+            openSince[i] = epochSecondOrNone(row.getOpenSessionStart());
+        }
+        double[] hours = new double[count];
+        creditPolicies.forEvent(event).hours(closedSeconds, openSince, now.getEpochSecond(), hours, count);
+
+        List<EventAttendeeResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(toAttendeeResponse(rows.get(i), hours[i]));
+        }
+        return responses;
+    }
+
+    private EventAttendeeResponse toAttendeeResponse(AttendeeRosterRow row, double creditHours) {
+        AttendanceEventType lastType = row.getLastEventType();
+        return new EventAttendeeResponse(
+            row.getRegistrationId(),
+            row.getUserId(),
+            row.getUserName(),
+            row.getUserEmail(),
+            row.getRegistrationCode(),
+            rosterStatus(lastType),
+            lastType == null ? row.getRegisteredAt() : row.getLastEventAt(),
+            creditHours,
+            lastType == null ? "NONE" : lastType.toString()
+        );
+    }
+
+    // Status shown on the admin roster for the last attendance event
+    private static String rosterStatus(AttendanceEventType lastType) {
+        if (lastType == null) return "REGISTERED";
+        switch (lastType) {
+            case CHECKIN:
+            case RESUME:
+                return "ACTIVE";
+            case PAUSE:
+                return "PAUSED";
+            case CHECKOUT:
+                return "CHECKED_OUT";
+            default:
+                return "REGISTERED";
+        }
     }
 
     /**
@@ -288,10 +730,10 @@ public class AttendanceService {
         User user = userRepository.findByEmail(userEmail)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + userEmail));
         
-        // Get all registrations for this user
-        List<Registration> userRegistrations = registrationRepo.findByUser(user);
+        // All registrations with their events and running totals in one query
+        List<UserDashboardRow> rows = ledgerRepo.findDashboardRows(user.getId());
+        long nowEpoch = Instant.now().getEpochSecond();
         
-        // Calculate upcoming events (events that haven't started yet)
         int upcomingEvents = 0;
         double totalAttendanceHours = 0.0;
         int qrScans = 0;
@@ -300,8 +742,8 @@ public class AttendanceService {
         // Get current time as LocalDateTime for comparison
         LocalDateTime now = LocalDateTime.now();
         
-        for (Registration registration : userRegistrations) {
-            Event event = registration.getEvent();
+        for (UserDashboardRow row : rows) {
+            Event event = row.getEvent();
             
             // Check if event is upcoming (hasn't started yet)
             if (event.getEventStartTime().isAfter(now)) {
@@ -313,17 +755,14 @@ public class AttendanceService {
                 eventsAttended++;
             }
             
+            if (row.getAccumulatedSeconds() == null) continue;
+            
             // Calculate total attendance hours for this registration
-            Duration totalActive = computeTotalActiveTimeForRegistration(registration);
-            totalAttendanceHours += computeCreditHours(totalActive.getSeconds());
+            totalAttendanceHours += creditPolicies.forEvent(event).hours(
+                row.getAccumulatedSeconds(), epochSecondOrNone(row.getOpenSessionStart()), nowEpoch);
             
             // Count QR scans (CHECKIN events)
-            List<AttendanceEvent> attendanceEvents = eventRepo.findByRegistrationOrderByCreatedAtAsc(registration);
-            for (AttendanceEvent attendanceEvent : attendanceEvents) {
-                if (attendanceEvent.getEventType() == AttendanceEventType.CHECKIN) {
-                    qrScans++;
-                }
-            }
+            qrScans += row.getCheckinCount();
         }
         
         // Get recent activity for this user
@@ -339,40 +778,20 @@ public class AttendanceService {
     }
 
     /**
-     * Get recent activity for a specific user
+     * Get the 5 most recent attendance events across a user's registrations
      */
-    @Transactional(readOnly = true)
     private List<RecentActivityResponse> getUserRecentActivity(User user) {
         List<RecentActivityResponse> activities = new ArrayList<>();
-        
-        // Get all registrations for this user
-        List<Registration> userRegistrations = registrationRepo.findByUser(user);
-        
-        for (Registration registration : userRegistrations) {
-            Event event = registration.getEvent();
-            
-            // Get all attendance events for this registration, ordered by most recent
-            List<AttendanceEvent> attendanceEvents = eventRepo.findByRegistrationOrderByCreatedAtAsc(registration);
-            
-            // Convert attendance events to activity items
-            for (AttendanceEvent attendanceEvent : attendanceEvents) {
-                String activityType = getActivityTypeDescription(attendanceEvent.getEventType());
-                String status = getStatusDescription(attendanceEvent.getEventType());
-                
-                activities.add(new RecentActivityResponse(
-                    activityType,
-                    event.getEventName(),
-                    attendanceEvent.getCreatedAt(),
-                    status
-                ));
-            }
+        for (Object[] row : eventRepo.findRecentActivityForUser(user.getId(), PageRequest.of(0, RECENT_ACTIVITY_LIMIT))) {
+            AttendanceEventType type = (AttendanceEventType) row[0];
+            activities.add(new RecentActivityResponse(
+                getActivityTypeDescription(type),
+                (String) row[1],
+                (Instant) row[2],
+                getStatusDescription(type)
+            ));
         }
-        
-        // Sort by timestamp (most recent first) and take only the last 5 activities
-        return activities.stream()
-            .sorted(Comparator.comparing(RecentActivityResponse::getTimestamp).reversed())
-            .limit(5)
-            .collect(Collectors.toList());
+        return activities;
     }
     
     /**
@@ -0,0 +1,170 @@
+package com.global.hr.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.global.hr.events.AttendanceRecordedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed attendance events to Server-Sent Events subscribers of the
+ * same event. Publishing only enqueues: each subscriber has a bounded buffer
+ * drained by a small sender pool, so a slow browser never holds up a scan.
+ * When a buffer overflows it is replaced by a single "resync" message telling
+ * the client to reload the roster.
+ */
+@Service
+public class AttendanceStreamService {
+
+    private static final Object RESYNC = new Object();
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService senders;
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public AttendanceStreamService(@Value("${attendance.stream.buffer-size:256}") int bufferSize,
+                                   @Value("${attendance.stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${attendance.stream.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "attendance-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(eventId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        // compute() so a concurrent remove() cannot drop the list we are adding to
+        subscribers.compute(eventId, (id, watching) -> {
+            List<Subscriber> list = watching == null ? new CopyOnWriteArrayList<>() : watching;
+            list.add(subscriber);
+            return list;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        return emitter;
+    }
+
+    // fallbackExecution: the write-behind flusher publishes from its own transaction template
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceRecorded(AttendanceRecordedEvent event) {
+        List<Subscriber> watching = subscribers.get(event.getEventId());
+        if (watching == null) return;
+        for (Subscriber subscriber : watching) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    // keeps idle connections open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${attendance.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (List<Subscriber> watching : subscribers.values()) {
+            for (Subscriber subscriber : watching) {
+                enqueue(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    public int subscriberCount(Long eventId) {
+        List<Subscriber> watching = subscribers.get(eventId);
+        return watching == null ? 0 : watching.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (List<Subscriber> watching : subscribers.values()) {
+            for (Subscriber subscriber : watching) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Object message) {
+        if (!subscriber.queue.offer(message)) {
+            // too far behind: drop what is buffered, the client reloads instead
+            subscriber.queue.clear();
+            subscriber.queue.offer(RESYNC);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException ex) {
+                // shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (message == RESYNC) {
+                    subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name("attendance").data(message));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // client disconnected or emitter already completed
+            remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // a message may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.eventId, (id, watching) -> {
+            watching.remove(subscriber);
+            return watching.isEmpty() ? null : watching;
+        });
+    }
+
+    private static final class Subscriber {
+        final Long eventId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long eventId, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.global.hr.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.global.hr.Entity.Event;
+import com.global.hr.Repo.EventRepo;
+import com.google.zxing.common.BitMatrix;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Printable badges (QR code and attendee name) for every registration of an
+ * event. Registrations are read in id order a batch at a time; each batch is
+ * rendered in parallel on a bounded pool and written out in the order tiles
+ * finish, so only one batch of images is held in memory at once.
+ *
+ * Badges bypass the QR cache: a full event would only evict the ticket images
+ * attendees keep reopening.
+ */
+@Service
+public class BadgeService {
+
+    private static final int QR_SIZE = 300;
+    private static final int NAME_HEIGHT = 40;
+    private static final int MAX_COLUMNS = 20;
+
+    private final EventRepo eventRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final QrCodeService qrCodeService;
+    private final int batchSize;
+    private final ForkJoinPool renderPool;
+
+    public BadgeService(EventRepo eventRepo, JdbcTemplate jdbcTemplate, QrCodeService qrCodeService,
+                        @Value("${badges.threads:4}") int threads,
+                        @Value("${badges.batch-size:256}") int batchSize) {
+        this.eventRepo = eventRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.qrCodeService = qrCodeService;
+        this.batchSize = batchSize;
+        this.renderPool = new ForkJoinPool(threads);
+    }
+
+    public Event requireEvent(Long eventId) {
+        return eventRepo.findById(eventId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+    }
+
+    /**
+     * A ZIP with one PNG per registration, named by registration id and attendee name.
+     */
+    public void writeZip(Long eventId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        long upToId = badgeRange(eventId)[1];
+        long afterId = 0;
+        List<Badge> batch;
+        while (!(batch = loadBatch(eventId, afterId, upToId)).isEmpty()) {
+            render(batch, badge -> QrImageEncoder.png(qrCodeService.encode(badge.code), QR_SIZE, QR_SIZE), (badge, png) -> {
+                // PNG data is already deflated, so entries are stored as is
+                ZipEntry entry = new ZipEntry(badge.registrationId + "_" + fileSafe(badge.name) + ".png");
+                CRC32 crc = new CRC32();
+                crc.update(png);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(png.length);
+                entry.setCompressedSize(png.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(png);
+                zip.closeEntry();
+            });
+            zip.flush();
+            afterId = batch.get(batch.size() - 1).registrationId;
+        }
+        zip.finish();
+    }
+
+    /**
+     * One SVG sheet with a grid of badges, columns wide, in registration id order.
+     * The sheet height comes from the registration count read up front; batches
+     * are then read one short query at a time, never holding a connection while
+     * the client reads. Ids handed out in pooled blocks can commit out of order,
+     * so a batch may find registrations that were not counted: tiles beyond the
+     * count are left out rather than drawn below the sheet.
+     */
+    public void writeSvgSheet(Long eventId, int columns, OutputStream out) throws IOException {
+        int cols = Math.max(1, Math.min(columns, MAX_COLUMNS));
+        long[] range = badgeRange(eventId);
+        long tiles = range[0];
+        long rows = Math.max(1, (tiles + cols - 1) / cols);
+        int tileHeight = QR_SIZE + NAME_HEIGHT;
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + cols * QR_SIZE + "\" height=\"" + rows * tileHeight
+            + "\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>");
+        long afterId = 0;
+        long index = 0;
+        List<Badge> batch;
+        while (index < tiles && !(batch = loadBatch(eventId, afterId, range[1])).isEmpty()) {
+            // never draw below the declared height, whatever the database returns
+            if (batch.size() > tiles - index) batch = batch.subList(0, (int) (tiles - index));
+            // tiles are positioned by index, so they can be written in any order
+            for (Badge badge : batch) badge.index = index++;
+            render(batch, badge -> svgTile(badge, cols, tileHeight), (badge, tile) -> writer.write(tile));
+            writer.flush();
+            afterId = batch.get(batch.size() - 1).registrationId;
+        }
+        writer.write("</svg>");
+        writer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    private String svgTile(Badge badge, int cols, int tileHeight) {
+        BitMatrix modules = qrCodeService.encode(badge.code);
+        int size = QrImageEncoder.svgSize(modules);
+        long x = (badge.index % cols) * QR_SIZE;
+        long y = (badge.index / cols) * tileHeight;
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("<g transform=\"translate(").append(x).append(' ').append(y).append(")\">")
+          .append("<svg width=\"").append(QR_SIZE).append("\" height=\"").append(QR_SIZE)
+          .append("\" viewBox=\"0 0 ").append(size).append(' ').append(size).append("\"><path fill=\"#000\" d=\"");
+        QrImageEncoder.appendSvgPath(modules, sb);
+        sb.append("\"/></svg><text x=\"").append(QR_SIZE / 2).append("\" y=\"").append(QR_SIZE + NAME_HEIGHT / 2)
+          .append("\" text-anchor=\"middle\" dominant-baseline=\"middle\" font-family=\"sans-serif\" font-size=\"20\">")
+          .append(xmlEscape(badge.name)).append("</text></g>");
+        return sb.toString();
+    }
+
+    // render a batch on the pool, handing each result to the sink as soon as it is done
+    private <T> void render(List<Badge> batch, Renderer<T> renderer, Sink<T> sink) throws IOException {
+        CompletionService<Rendered<T>> completion = new ExecutorCompletionService<>(renderPool);
+        List<Future<Rendered<T>>> pending = new ArrayList<>(batch.size());
+        for (Badge badge : batch) {
+            pending.add(completion.submit(() -> new Rendered<>(badge, renderer.render(badge))));
+        }
+        boolean finished = false;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Rendered<T> done = take(completion);
+                sink.write(done.badge, done.value);
+            }
+            finished = true;
+        } finally {
+            // client went away or a write failed: drop what is still queued
+            if (!finished) pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> Rendered<T> take(CompletionService<Rendered<T>> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering badges", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Badge rendering failed", ex.getCause());
+        }
+    }
+
+    // registration count and highest id when the download started; later registrations are left out
+    private long[] badgeRange(Long eventId) {
+        return jdbcTemplate.queryForObject(
+            "select count(*), coalesce(max(id), 0) from registrations where event_id = ?",
+            (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+            eventId);
+    }
+
+    private List<Badge> loadBatch(Long eventId, long afterId, long upToId) {
+        return jdbcTemplate.query(
+            "select r.id, r.code, u.name from registrations r join users u on u.id = r.user_id " +
+            "where r.event_id = ? and r.id > ? and r.id <= ? order by r.id limit ?",
+            (rs, rowNum) -> new Badge(rs.getLong(1), rs.getString(2), rs.getString(3)),
+            eventId, afterId, upToId, batchSize);
+    }
+
+    private static String fileSafe(String name) {
+        return name == null ? "attendee" : name.replaceAll("[^a-zA-Z0-9]", "_");
+    }
+
+    private static String xmlEscape(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '"': sb.append("&quot;"); break;
+                case '\'': sb.append("&apos;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private interface Renderer<T> {
+        T render(Badge badge);
+    }
+
+    private interface Sink<T> {
+        void write(Badge badge, T value) throws IOException;
+    }
+
+    private static final class Badge {
+        final long registrationId;
+        final String code;
+        final String name;
+        long index;
+
+        Badge(long registrationId, String code, String name) {
+            this.registrationId = registrationId;
+            this.code = code;
+            this.name = name;
+        }
+    }
+
+    private static final class Rendered<T> {
+        final Badge badge;
+        final T value;
+
+        Rendered(Badge badge, T value) {
+            this.badge = badge;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.global.hr.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global.hr.DTO.BulkChunkResult;
+import com.global.hr.DTO.BulkJobResponse;
+import com.global.hr.Entity.BulkJob;
+import com.global.hr.Entity.BulkJobStatus;
+import com.global.hr.Entity.BulkJobType;
+import com.global.hr.Repo.BulkJobRepo;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.exception.ResourceNotFoundException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs bulk checkout and event deletion as background jobs. Each chunk commits
+ * together with the job's progress, so no transaction spans the whole event and
+ * a job interrupted by a restart picks up after its last committed chunk.
+ *
+ * A worker claims a job by bumping its attempt counter with a conditional
+ * update, and writes each chunk only while that claim is still the latest, so
+ * nodes starting together never run the same job twice.
+ */
+@Service
+public class BulkJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobService.class);
+    private static final List<BulkJobStatus> ACTIVE = List.of(BulkJobStatus.PENDING, BulkJobStatus.RUNNING);
+
+    private final BulkJobRepo jobRepo;
+    private final EventRepo eventRepo;
+    private final RegistrationRepo registrationRepo;
+    private final AttendanceService attendanceService;
+    private final EventService eventService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScanWriteBehindService writeBehind;
+    private final int chunkSize;
+    private final ExecutorService workers;
+
+    public BulkJobService(BulkJobRepo jobRepo, EventRepo eventRepo, RegistrationRepo registrationRepo,
+                          AttendanceService attendanceService, EventService eventService,
+                          TransactionTemplate transactionTemplate, ScanWriteBehindService writeBehind,
+                          @Value("${jobs.chunk-size:500}") int chunkSize,
+                          @Value("${jobs.threads:2}") int threads) {
+        this.jobRepo = jobRepo;
+        this.eventRepo = eventRepo;
+        this.registrationRepo = registrationRepo;
+        this.attendanceService = attendanceService;
+        this.eventService = eventService;
+        this.transactionTemplate = transactionTemplate;
+        this.writeBehind = writeBehind;
+        this.chunkSize = chunkSize;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-job-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkJobResponse submitCheckoutAll(Long eventId) {
+        if (!eventRepo.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found: " + eventId);
+        }
+        return submit(BulkJobType.CHECKOUT_ALL, eventId);
+    }
+
+    public BulkJobResponse submitDeleteEvent(Long eventId) {
+        // validated once, here: from now on scans and registrations for the event are refused
+        writeBehind.exclusively(() -> {
+            eventService.markDeleting(eventId);
+            return null;
+        });
+        return submit(BulkJobType.DELETE_EVENT, eventId);
+    }
+
+    public BulkJobResponse getJob(Long id) {
+        return jobRepo.findById(id)
+            .map(BulkJobResponse::new)
+            .orElseThrow(() -> new ResourceNotFoundException("Job not found with id " + id));
+    }
+
+    /**
+     * Pick up jobs that were queued or running when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        for (BulkJob job : jobRepo.findByStatusInOrderById(ACTIVE)) {
+            log.info("Resuming {} job {} for event {}", job.getType(), job.getId(), job.getEventId());
+            workers.execute(() -> run(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // running jobs stop between chunks and resume on the next start
+        workers.shutdownNow();
+    }
+
+    private synchronized BulkJobResponse submit(BulkJobType type, Long eventId) {
+        // a client retrying the request gets the job already in progress
+        BulkJob existing = jobRepo.findFirstByTypeAndEventIdAndStatusIn(type, eventId, ACTIVE).orElse(null);
+        if (existing != null) return new BulkJobResponse(existing);
+
+        BulkJob job = jobRepo.save(new BulkJob(type, eventId, (int) registrationRepo.countByEvent_Id(eventId)));
+        workers.execute(() -> run(job.getId()));
+        return new BulkJobResponse(job);
+    }
+
+    private void run(Long jobId) {
+        BulkJob job = jobRepo.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()) return;
+        int seen = job.getAttempt();
+        Integer claimed = transactionTemplate.execute(status -> jobRepo.claim(jobId, seen, Instant.now(), ACTIVE));
+        if (claimed == null || claimed == 0) {
+            log.info("{} job {} was claimed by another worker", job.getType(), jobId);
+            return;
+        }
+        int attempt = seen + 1;
+        try {
+            BulkChunkResult chunk;
+            do {
+                if (Thread.currentThread().isInterrupted()) return;
+                // queued write-behind scans land first and cannot overwrite the chunk before it commits
+                chunk = writeBehind.exclusively(() -> transactionTemplate.execute(status -> runChunk(jobId, attempt)));
+            } while (chunk.getRegistrations() > 0);
+
+            if (job.getType() == BulkJobType.DELETE_EVENT) {
+                Long eventId = job.getEventId();
+                writeBehind.exclusively(() -> {
+                    eventService.deleteEmptyEvent(eventId);
+                    return null;
+                });
+            }
+            finish(jobId, attempt, BulkJobStatus.SUCCEEDED, null);
+        } catch (ClaimLostException ex) {
+            log.info("{} job {} was taken over by another worker", job.getType(), jobId);
+        } catch (RuntimeException ex) {
+            log.warn("{} job {} for event {} failed", job.getType(), jobId, job.getEventId(), ex);
+            finish(jobId, attempt, BulkJobStatus.FAILED, ex.getMessage());
+        }
+    }
+
+    // one chunk and the job's progress, committed together
+    private BulkChunkResult runChunk(Long jobId, int attempt) {
+        // the row lock keeps a competing claim out until this chunk has committed
+        BulkJob job = jobRepo.findByIdForUpdate(jobId).orElseThrow();
+        if (job.getAttempt() != attempt) throw new ClaimLostException();
+        BulkChunkResult chunk = job.getType() == BulkJobType.CHECKOUT_ALL
+            ? attendanceService.checkoutChunk(job.getEventId(), job.getCursorId() == null ? 0L : job.getCursorId(), chunkSize)
+            : eventService.deleteRegistrationsChunk(job.getEventId(), chunkSize);
+        if (chunk.getRegistrations() > 0) {
+            job.setProcessed(job.getProcessed() + chunk.getRegistrations());
+            job.setAffected(job.getAffected() + chunk.getAffected());
+            job.setCursorId(chunk.getLastRegistrationId());
+            // registrations made after submission are still included
+            job.setTotal(Math.max(job.getTotal(), job.getProcessed()));
+            jobRepo.save(job);
+        }
+        return chunk;
+    }
+
+    private void finish(Long jobId, int attempt, BulkJobStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> jobRepo.findByIdForUpdate(jobId).ifPresent(job -> {
+            if (job.getAttempt() != attempt) return;
+            job.setStatus(status);
+            job.setError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+            job.setFinishedAt(Instant.now());
+            jobRepo.save(job);
+        }));
+    }
+
+    // a later claim owns the job now; stop without touching it
+    private static final class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("Job claimed by another worker", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.global.hr.Service;
+
+import com.global.hr.Entity.AttendanceIntervals;
+
+/**
+ * How attended time turns into credit hours for one event, with all
+ * parameters resolved up front so evaluation is plain arithmetic.
+ *
+ * - minimum: less attended time than this earns nothing
+ * - rounding: totals are rounded to the nearest granule; totals under one
+ *   granule are reported unrounded
+ * - window: an open session only counts between the event's start and end
+ * - cap: the total never exceeds the event's duration
+ */
+public final class CreditPolicy {
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final long roundingSeconds;
+    private final long minimumSeconds;
+    private final long capSeconds;
+    private final long windowStart;
+    private final long windowEnd;
+
+    /**
+     * @param roundingSeconds granule to round to, 0 for no rounding
+     * @param minimumSeconds  minimum attended time for any credit, 0 for none
+     * @param capSeconds      maximum credited time, Long.MAX_VALUE for none
+     * @param windowStart     epoch second before which open sessions do not count, Long.MIN_VALUE for none
+     * @param windowEnd       epoch second after which open sessions do not count, Long.MAX_VALUE for none
+     */
+    public CreditPolicy(long roundingSeconds, long minimumSeconds, long capSeconds, long windowStart, long windowEnd) {
+        this.roundingSeconds = roundingSeconds;
+        this.minimumSeconds = minimumSeconds;
+        this.capSeconds = capSeconds;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    /**
+     * Credit hours for closed sessions plus a session open since openSince
+     * (AttendanceIntervals.NONE if none), as of now. All times in epoch seconds.
+     */
+    public double hours(long closedSeconds, long openSince, long now) {
+        long total = closedSeconds;
+        if (openSince != AttendanceIntervals.NONE) {
+            long from = Math.max(openSince, windowStart);
+            long to = Math.min(now, windowEnd);
+            if (to > from) total += to - from;
+        }
+        return hours(total);
+    }
+
+    /**
+     * Credit hours for a total attended time in seconds.
+     */
+    public double hours(long totalSeconds) {
+        long total = Math.min(totalSeconds, capSeconds);
+        if (total < minimumSeconds) return 0.0;
+        if (roundingSeconds == 0 || total < roundingSeconds) return total / SECONDS_PER_HOUR;
+        // nearest granule, halves rounded up
+        long granules = (total + roundingSeconds / 2) / roundingSeconds;
+        return granules * roundingSeconds / SECONDS_PER_HOUR;
+    }
+
+    /**
+     * Batch form of {@link #hours(long)}: out[i] = hours(totalSeconds[i]) for i < count.
+     */
+    public void hours(long[] totalSeconds, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = hours(totalSeconds[i]);
+        }
+    }
+
+    /**
+     * Batch form of {@link #hours(long, long, long)} over parallel arrays, for
+     * whole rosters: out[i] = hours(closedSeconds[i], openSince[i], now) for i < count.
+     */
+    public void hours(long[] closedSeconds, long[] openSince, long now, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = hours(closedSeconds[i], openSince[i], now);
+        }
+    }
+}
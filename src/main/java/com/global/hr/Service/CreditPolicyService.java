@@ -0,0 +1,123 @@
+package com.global.hr.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.global.hr.Entity.Event;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.events.EventChangedEvent;
+import com.global.hr.events.EventDeletedEvent;
+
+/**
+ * Compiled credit-hours policy per event: the event's own overrides on top of
+ * the credit.* defaults. Policies are built once and dropped when the event is
+ * updated or deleted.
+ *
+ * A policy loaded while the event is being updated must not outlive the
+ * update: it is only cached if no invalidation happened since its load began,
+ * and only when loaded in a fresh read. Inside a caller's transaction the
+ * event may come from a snapshot older than the update, so it is compiled
+ * (cheap, the event is usually loaded already) but not cached.
+ */
+@Service
+public class CreditPolicyService {
+
+    private final EventRepo eventRepo;
+    private final int defaultRoundingMinutes;
+    private final int defaultMinimumMinutes;
+    private final boolean defaultCapToDuration;
+    private final boolean defaultClipToWindow;
+    private final CreditPolicy defaultPolicy;
+
+    private final Map<Long, CreditPolicy> policies = new ConcurrentHashMap<>();
+    // bumped on every invalidation, under the map entry of the invalidated event
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CreditPolicyService(EventRepo eventRepo,
+                               @Value("${credit.rounding-minutes:15}") int defaultRoundingMinutes,
+                               @Value("${credit.minimum-minutes:0}") int defaultMinimumMinutes,
+                               @Value("${credit.cap-to-event-duration:false}") boolean defaultCapToDuration,
+                               @Value("${credit.clip-to-event-window:false}") boolean defaultClipToWindow) {
+        this.eventRepo = eventRepo;
+        this.defaultRoundingMinutes = defaultRoundingMinutes;
+        this.defaultMinimumMinutes = defaultMinimumMinutes;
+        this.defaultCapToDuration = defaultCapToDuration;
+        this.defaultClipToWindow = defaultClipToWindow;
+        this.defaultPolicy = new CreditPolicy(defaultRoundingMinutes * 60L, defaultMinimumMinutes * 60L,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Policy for an event id, loading the event on first use. Unknown events
+     * get the default policy.
+     */
+    public CreditPolicy forEvent(Long eventId) {
+        CreditPolicy cached = policies.get(eventId);
+        if (cached != null) return cached;
+        boolean fresh = !TransactionSynchronizationManager.isActualTransactionActive();
+        long seen = invalidations.get();
+        CreditPolicy policy = eventRepo.findById(eventId).map(this::compile).orElse(defaultPolicy);
+        return fresh ? cache(eventId, policy, seen) : policy;
+    }
+
+    /**
+     * Policy for an already loaded event. The caller's copy may predate an
+     * update, so it is never cached from here.
+     */
+    public CreditPolicy forEvent(Event event) {
+        CreditPolicy cached = policies.get(event.getId());
+        return cached != null ? cached : compile(event);
+    }
+
+    // the loaded policy, cached unless an invalidation happened since seen was read
+    private CreditPolicy cache(Long eventId, CreditPolicy policy, long seen) {
+        CreditPolicy current = policies.compute(eventId, (id, existing) -> {
+            if (existing != null) return existing;
+            return invalidations.get() == seen ? policy : null;
+        });
+        return current != null ? current : policy;
+    }
+
+    // under the same map entry as cache(), so a load cannot slip in between the bump and the removal
+    void invalidate(Long eventId) {
+        policies.compute(eventId, (id, existing) -> {
+            invalidations.incrementAndGet();
+            return null;
+        });
+    }
+
+    CreditPolicy compile(Event event) {
+        int rounding = event.getCreditRoundingMinutes() != null ? event.getCreditRoundingMinutes() : defaultRoundingMinutes;
+        int minimum = event.getCreditMinimumMinutes() != null ? event.getCreditMinimumMinutes() : defaultMinimumMinutes;
+        boolean cap = event.getCreditCapToDuration() != null ? event.getCreditCapToDuration() : defaultCapToDuration;
+        boolean clip = event.getCreditClipToWindow() != null ? event.getCreditClipToWindow() : defaultClipToWindow;
+
+        LocalDateTime start = event.getEventStartTime();
+        LocalDateTime end = event.getEventEndTime();
+        long capSeconds = cap && start != null && end != null
+                ? Math.max(0, Duration.between(start, end).getSeconds()) : Long.MAX_VALUE;
+        // event times are local wall-clock times, as compared elsewhere with LocalDateTime.now()
+        long windowStart = clip && start != null ? start.atZone(ZoneId.systemDefault()).toEpochSecond() : Long.MIN_VALUE;
+        long windowEnd = clip && end != null ? end.atZone(ZoneId.systemDefault()).toEpochSecond() : Long.MAX_VALUE;
+        return new CreditPolicy(rounding * 60L, minimum * 60L, capSeconds, windowStart, windowEnd);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        invalidate(event.getEventId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        invalidate(event.getEventId());
+    }
+}
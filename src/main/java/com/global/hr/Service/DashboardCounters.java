@@ -0,0 +1,124 @@
+package com.global.hr.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.global.hr.DTO.DashboardStatsResponse;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.Repo.UserRepo;
+import com.global.hr.events.AttendanceRecordedEvent;
+import com.global.hr.events.EventChangedEvent;
+import com.global.hr.events.EventDeletedEvent;
+import com.global.hr.events.RegistrationCreatedEvent;
+import com.global.hr.events.UserRegisteredEvent;
+
+/**
+ * Admin dashboard figures kept in memory. Totals are counted once at startup,
+ * moved on commit of each user, registration and event change, and recounted
+ * periodically; scans are counted per second over the last five minutes.
+ * Counts are per JVM, which assumes a single application instance.
+ */
+@Service
+public class DashboardCounters {
+
+    private static final int SCAN_WINDOW_SECONDS = 300;
+
+    private final EventRepo eventRepo;
+    private final RegistrationRepo registrationRepo;
+    private final UserRepo userRepo;
+    private final OccupancyTracker occupancy;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder users = new LongAdder();
+    private final LongAdder registrations = new LongAdder();
+
+    // ring of per-second scan counts; a slot belongs to the second stored next to it
+    private final long[] scanSeconds = new long[SCAN_WINDOW_SECONDS];
+    private final long[] scanCounts = new long[SCAN_WINDOW_SECONDS];
+
+    public DashboardCounters(EventRepo eventRepo, RegistrationRepo registrationRepo, UserRepo userRepo,
+                             OccupancyTracker occupancy) {
+        this.eventRepo = eventRepo;
+        this.registrationRepo = registrationRepo;
+        this.userRepo = userRepo;
+        this.occupancy = occupancy;
+    }
+
+    public DashboardStatsResponse stats() {
+        return new DashboardStatsResponse(
+            events.sum(),
+            users.sum(),
+            registrations.sum(),
+            occupancy.totalActive(),
+            scansSince(Instant.now().getEpochSecond()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dashboard.reconcile-ms:300000}", fixedDelayString = "${dashboard.reconcile-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        reset(events, eventRepo.count());
+        reset(users, userRepo.count());
+        reset(registrations, registrationRepo.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        users.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationCreated(RegistrationCreatedEvent event) {
+        registrations.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        if (event.isCreated()) events.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        events.decrement();
+        // the event's registrations went with it; deletions are rare enough to recount
+        reset(registrations, registrationRepo.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceRecorded(AttendanceRecordedEvent event) {
+        // an admin checking out 5,000 attendees is not 5,000 scans
+        if (event.isBulk()) return;
+        recordScans(Instant.now().getEpochSecond(), 1);
+    }
+
+    private synchronized void recordScans(long second, int count) {
+        int slot = (int) (second % SCAN_WINDOW_SECONDS);
+        if (scanSeconds[slot] != second) {
+            scanSeconds[slot] = second;
+            scanCounts[slot] = 0;
+        }
+        scanCounts[slot] += count;
+    }
+
+    private synchronized long scansSince(long now) {
+        long total = 0;
+        for (int i = 0; i < SCAN_WINDOW_SECONDS; i++) {
+            if (now - scanSeconds[i] < SCAN_WINDOW_SECONDS) total += scanCounts[i];
+        }
+        return total;
+    }
+
+    private static void reset(LongAdder adder, long value) {
+        // not atomic with concurrent increments; the next reconcile corrects any overlap
+        adder.reset();
+        adder.add(value);
+    }
+}
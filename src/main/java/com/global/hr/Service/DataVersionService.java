@@ -0,0 +1,72 @@
+package com.global.hr.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.global.hr.events.AttendanceRecordedEvent;
+import com.global.hr.events.EventChangedEvent;
+import com.global.hr.events.EventDeletedEvent;
+import com.global.hr.events.RegistrationCreatedEvent;
+
+/**
+ * Version counters behind the ETags of frequently polled read endpoints.
+ * Counters are bumped after the change commits, so a tag is never newer than
+ * the data served with it. They live in this JVM (with a per-boot nonce in the
+ * tag), which assumes a single application instance.
+ *
+ * - per event: attendance writes, registrations, event updates and deletion
+ * - events: the event list (create, update, delete)
+ */
+@Service
+public class DataVersionService {
+
+    // roster hours of open sessions grow with time, so roster tags also roll over each minute
+    private static final long ROSTER_TAG_SECONDS = 60;
+
+    private final String bootNonce = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<Long, AtomicLong> eventVersions = new ConcurrentHashMap<>();
+    private final AtomicLong eventsVersion = new AtomicLong();
+
+    public String rosterTag(Long eventId) {
+        long version = eventVersions.computeIfAbsent(eventId, id -> new AtomicLong()).get();
+        long bucket = Instant.now().getEpochSecond() / ROSTER_TAG_SECONDS;
+        return "\"r" + eventId + "-" + bootNonce + "-" + version + "-" + bucket + "\"";
+    }
+
+    public String eventsTag() {
+        return "\"e-" + bootNonce + "-" + eventsVersion.get() + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceRecorded(AttendanceRecordedEvent event) {
+        bumpEvent(event.getEventId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationCreated(RegistrationCreatedEvent event) {
+        bumpEvent(event.getEventId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        bumpEvent(event.getEventId());
+        eventsVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        // a recreated id must not match tags handed out before the delete
+        bumpEvent(event.getEventId());
+        eventsVersion.incrementAndGet();
+    }
+
+    private void bumpEvent(Long eventId) {
+        eventVersions.computeIfAbsent(eventId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
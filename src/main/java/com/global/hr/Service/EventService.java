@@ -1,21 +1,30 @@
 package com.global.hr.Service;
 
 import com.global.hr.DTO.EventDtoRequest;
+import com.global.hr.DTO.BulkChunkResult;
 import com.global.hr.DTO.EventDtoResponse;
 import com.global.hr.Entity.Event;
 import com.global.hr.Entity.Registration;
 import com.global.hr.Entity.AttendanceEvent;
 import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.Entity.AttendanceLedger;
 import com.global.hr.Repo.AttendanceEventRepo;
+import com.global.hr.Repo.AttendanceLedgerRepo;
 import com.global.hr.Repo.RegistrationRepo;
 import com.global.hr.Repo.EventRepo;
 import com.global.hr.exception.ResourceNotFoundException;
+import com.global.hr.events.EventChangedEvent;
+import com.global.hr.events.EventDeletedEvent;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -27,6 +36,14 @@ public class EventService {
     private RegistrationRepo registrationRepo;
     @Autowired
     private AttendanceEventRepo attendanceEventRepo;
+    @Autowired
+    private AttendanceLedgerRepo attendanceLedgerRepo;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ScanWriteBehindService writeBehind;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     public EventService(EventRepo eventRepo) {
 		super();
 		this.eventRepo = eventRepo;
@@ -38,8 +55,10 @@ public class EventService {
     	            dto.getStartTime(),
     	            dto.getEndTime()
     	        );
+    	        applyCreditPolicy(event, dto);
 
     	        Event saved = eventRepo.save(event);
+    	        eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), true));
 
     	        return new EventDtoResponse(
     	            saved.getId(),
@@ -78,8 +97,10 @@ public class EventService {
                     existing.setEventName(dto.getEventName());
                     existing.setEventStartTime(dto.getStartTime());
                     existing.setEventEndTime(dto.getEndTime());
+                    applyCreditPolicy(existing, dto);
 
                     Event saved = eventRepo.save(existing);
+                    eventPublisher.publishEvent(new EventChangedEvent(saved.getId()));
                     // map back to DTO
                     return new EventDtoResponse(
                             saved.getId(),
@@ -91,8 +112,29 @@ public class EventService {
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
     }
 
-	@Transactional
+    // credit policy fields are optional: only the ones present in the request are changed
+    private static void applyCreditPolicy(Event event, EventDtoRequest dto) {
+        if (dto.getCreditRoundingMinutes() != null) {
+            if (dto.getCreditRoundingMinutes() < 0) throw new IllegalArgumentException("creditRoundingMinutes must not be negative");
+            event.setCreditRoundingMinutes(dto.getCreditRoundingMinutes());
+        }
+        if (dto.getCreditMinimumMinutes() != null) {
+            if (dto.getCreditMinimumMinutes() < 0) throw new IllegalArgumentException("creditMinimumMinutes must not be negative");
+            event.setCreditMinimumMinutes(dto.getCreditMinimumMinutes());
+        }
+        if (dto.getCreditCapToDuration() != null) event.setCreditCapToDuration(dto.getCreditCapToDuration());
+        if (dto.getCreditClipToWindow() != null) event.setCreditClipToWindow(dto.getCreditClipToWindow());
+    }
+
 	public void deleteEvent(Long id) {
+		// queued write-behind scans must be written before the checks, and none may arrive before we commit
+		writeBehind.exclusively(() -> {
+			transactionTemplate.executeWithoutResult(status -> deleteEventNow(id));
+			return null;
+		});
+	}
+
+	private void deleteEventNow(Long id) {
 		Event event = eventRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id " + id));
 
@@ -101,15 +143,16 @@ public class EventService {
 
 		if (!registrations.isEmpty()) {
 			// Verify all are checked out (last event is CHECKOUT or no events)
-			for (com.global.hr.Entity.Registration registration : registrations) {
-				com.global.hr.Entity.AttendanceEvent last = attendanceEventRepo.findFirstByRegistrationOrderByCreatedAtDesc(registration);
-				if (last != null && last.getEventType() != com.global.hr.Entity.AttendanceEventType.CHECKOUT) {
+			List<AttendanceLedger> ledgers = attendanceLedgerRepo.findByRegistrationIn(registrations);
+			for (AttendanceLedger ledger : ledgers) {
+				if (ledger.getLastEventType() != null && ledger.getLastEventType() != AttendanceEventType.CHECKOUT) {
 					throw new IllegalStateException("Cannot delete event while some attendees are not checked out");
 				}
 			}
 
-			// Delete attendance events for all registrations
+			// Delete attendance events and running totals for all registrations
 			attendanceEventRepo.deleteByRegistrationIn(registrations);
+			attendanceLedgerRepo.deleteAll(ledgers);
 
 			// Delete registrations
 			registrationRepo.deleteAll(registrations);
@@ -117,6 +160,65 @@ public class EventService {
 
 		// Finally delete the event
 		eventRepo.delete(event);
+		eventPublisher.publishEvent(new EventDeletedEvent(id));
+	}
+
+	/**
+	 * Accept a background deletion: fails unless every attendee of the event is
+	 * checked out or never scanned in, then marks the event as being deleted so
+	 * that no scan or registration can change that while the job runs. Checked
+	 * only once: the job's chunks delete whatever they find.
+	 */
+	@Transactional
+	public void markDeleting(Long id) {
+		Event event = eventRepo.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Event not found with id " + id));
+		if (event.isDeleting()) return;
+
+		// wait for scans of this event in flight, and make later ones see the flag
+		registrationRepo.bumpVersionsForEvent(id);
+		if (attendanceLedgerRepo.countNotCheckedOutForEvent(id) > 0) {
+			throw new IllegalStateException("Cannot delete event while some attendees are not checked out");
+		}
+		event.setDeleting(true);
+		eventRepo.save(event);
+		eventPublisher.publishEvent(new EventChangedEvent(id));
+	}
+
+	/**
+	 * One chunk of a background event deletion: removes up to limit registrations
+	 * with their attendance events and ledgers, in their own transaction. The
+	 * event is already marked as being deleted.
+	 */
+	@Transactional
+	public BulkChunkResult deleteRegistrationsChunk(Long id, int limit) {
+		List<Long> registrationIds = registrationRepo.findIdsByEventId(id, PageRequest.of(0, limit));
+		if (registrationIds.isEmpty()) {
+			return new BulkChunkResult(0, 0, null);
+		}
+		attendanceEventRepo.deleteByRegistrationIds(registrationIds);
+		attendanceLedgerRepo.deleteAllByIdInBatch(registrationIds);
+		registrationRepo.deleteAllByIdInBatch(registrationIds);
+		return new BulkChunkResult(registrationIds.size(), registrationIds.size(),
+				registrationIds.get(registrationIds.size() - 1));
+	}
+
+	/**
+	 * Last step of a background event deletion, once the chunks found no more
+	 * registrations.
+	 */
+	@Transactional
+	public void deleteEmptyEvent(Long id) {
+		if (eventRepo.findByIdForUpdate(id).isEmpty()) return;
+		// a registration that read the event just before it was marked may have committed since
+		List<Long> stragglers = registrationRepo.findIdsByEventId(id, Pageable.unpaged());
+		if (!stragglers.isEmpty()) {
+			attendanceEventRepo.deleteByRegistrationIds(stragglers);
+			attendanceLedgerRepo.deleteAllByIdInBatch(stragglers);
+			registrationRepo.deleteAllByIdInBatch(stragglers);
+		}
+		eventRepo.deleteById(id);
+		eventPublisher.publishEvent(new EventDeletedEvent(id));
 	}
 
     
@@ -1,120 +1,165 @@
 package com.global.hr.Service;
 
-import com.global.hr.DTO.AttendeeExportResponse;
 import com.global.hr.Entity.*;
-import com.global.hr.Repo.AttendanceEventRepo;
 import com.global.hr.Repo.EventRepo;
-import com.global.hr.Repo.RegistrationRepo;
 import com.opencsv.CSVWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.io.StringWriter;
-import java.time.Duration;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Calendar;
+import java.util.TimeZone;
 
 @Service
 public class ExportService {
 
+    private static final String[] HEADER = {
+        "Attendee Name", "Email", "Registration Status", "Registration Date",
+        "Total Time (Hours)", "Check-in Time", "Check-out Time"
+    };
+
+    // every registration of the event with its attendance history, in one ordered pass
+    private static final String EXPORT_SQL =
+        "select r.id, u.name, u.email, r.status, r.created_at, e.event_type, e.created_at " +
+        "from registrations r join users u on u.id = r.user_id " +
+        "left join attendance_events e on e.registration_id = r.id " +
+        "where r.event_id = ? order by r.id, e.created_at, e.id";
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
     private final EventRepo eventRepo;
-    private final RegistrationRepo registrationRepo;
-    private final AttendanceEventRepo attendanceEventRepo;
+    private final JdbcTemplate jdbcTemplate;
 
-    public ExportService(EventRepo eventRepo, 
-                        RegistrationRepo registrationRepo,
-                        AttendanceEventRepo attendanceEventRepo) {
+    public ExportService(EventRepo eventRepo, JdbcTemplate jdbcTemplate) {
         this.eventRepo = eventRepo;
-        this.registrationRepo = registrationRepo;
-        this.attendanceEventRepo = attendanceEventRepo;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Download filename for an event's attendee export; fails if the event does not exist.
+     */
+    public String exportFilename(Long eventId) {
+        Event event = eventRepo.findById(eventId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+        return "attendees_" +
+               event.getEventName().replaceAll("[^a-zA-Z0-9]", "_") + "_" +
+               java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) +
+               ".csv";
+    }
+
+    /**
+     * Stream the attendee CSV of an event to the response as UTF-8.
+     */
+    public void streamAttendeesCsv(Long eventId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeAttendeesCsv(eventId, writer);
+        writer.flush();
     }
 
-    public AttendeeExportResponse exportAttendeesForEvent(Long eventId) {
+    /**
+     * Write the attendee CSV of an event row by row. Rows come from a single
+     * streamed query, so memory use does not depend on the number of attendees.
+     */
+    public void writeAttendeesCsv(Long eventId, Writer writer) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(HEADER);
+        // send the header right away
+        csvWriter.flush();
+
+        // one accumulator reused for every attendee; history is folded as rows arrive
+        AttendeeRow row = new AttendeeRow();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        long now = Instant.now().getEpochSecond();
+        int[] written = new int[1];
         try {
-            // Get event details
-            Event event = eventRepo.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
-            
-            // Get all registrations for this event
-            List<Registration> registrations = registrationRepo.findByEvent(event);
-            
-            // Create CSV content
-            StringWriter stringWriter = new StringWriter();
-            CSVWriter csvWriter = new CSVWriter(stringWriter);
-            
-            // Write CSV header
-            String[] header = {
-                "Attendee Name", "Email", "Registration Status", "Registration Date",
-                "Total Time (Hours)", "Check-in Time", "Check-out Time"
-            };
-            csvWriter.writeNext(header);
-            
-            // Write data for each attendee
-            for (Registration registration : registrations) {
-                User user = registration.getUser();
-                
-                // Get attendance events for this registration
-                List<AttendanceEvent> events = attendanceEventRepo.findByRegistrationOrderByCreatedAtAsc(registration);
-                
-                // Calculate attendance metrics
-                String totalTime = calculateTotalAttendanceTime(events);
-                String checkinTime = getFirstCheckinTime(events);
-                String checkoutTime = getLastCheckoutTime(events);
-                
-                String[] row = {
-                    user.getName(),
-                    user.getEmail(),
-                    registration.getStatus().toString(),
-                    registration.getCreatedAt().toString(),
-                    totalTime,
-                    checkinTime,
-                    checkoutTime
-                };
-                csvWriter.writeNext(row);
-            }
-            
-            csvWriter.close();
-            
-            // Generate filename
-            String filename = "attendees_" + 
-                            event.getEventName().replaceAll("[^a-zA-Z0-9]", "_") + "_" + 
-                            java.time.LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + 
-                            ".csv";
-            
-            return new AttendeeExportResponse(stringWriter.toString(), filename);
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating CSV: " + e.getMessage(), e);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J streams rows one at a time only with this fetch size
+                ps.setFetchSize(Integer.MIN_VALUE);
+                ps.setLong(1, eventId);
+                return ps;
+            }, rs -> {
+                long registrationId = rs.getLong(1);
+                if (row.registrationId != registrationId) {
+                    if (row.registrationId != 0) writeRow(csvWriter, row, now, ++written[0]);
+                    row.start(registrationId, rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getTimestamp(5, utc).toInstant());
+                }
+                String type = rs.getString(6);
+                if (type != null) {
+                    row.intervals.apply(AttendanceIntervals.code(type), rs.getTimestamp(7, utc).toInstant().getEpochSecond());
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
         }
+        if (row.registrationId != 0) writeRow(csvWriter, row, now, ++written[0]);
+        csvWriter.flush();
     }
 
-    private String calculateTotalAttendanceTime(List<AttendanceEvent> events) {
-        if (events.isEmpty()) return "0s";
-        
-        long totalSeconds = 0;
-        Instant checkinTime = null;
-        
-        for (AttendanceEvent event : events) {
-            switch (event.getEventType()) {
-                case CHECKIN:
-                case RESUME:
-                    checkinTime = event.getCreatedAt();
-                    break;
-                case PAUSE:
-                case CHECKOUT:
-                    if (checkinTime != null) {
-                        Duration duration = Duration.between(checkinTime, event.getCreatedAt());
-                        totalSeconds += duration.getSeconds();
-                        checkinTime = null; // Reset for next session
-                    }
-                    break;
+    private static void writeRow(CSVWriter csvWriter, AttendeeRow row, long now, int rowNumber) {
+        csvWriter.writeNext(row.toCsv(now));
+        if (rowNumber % FLUSH_EVERY_ROWS == 0) {
+            try {
+                csvWriter.flush();
+            } catch (IOException ex) {
+                // client went away; stop reading the result set
+                throw new UncheckedIOException(ex);
             }
         }
-        
-        return formatDuration(totalSeconds);
     }
 
-    private String formatDuration(long totalSeconds) {
+    /**
+     * Export columns for the registration currently being read. Totals use the
+     * same rules as the roster and scan responses, so an open session counts
+     * up to the time of the export.
+     */
+    private static final class AttendeeRow {
+        final AttendanceIntervals intervals = new AttendanceIntervals();
+        long registrationId;
+        String name;
+        String email;
+        String status;
+        Instant registeredAt;
+
+        void start(long registrationId, String name, String email, String status, Instant registeredAt) {
+            this.registrationId = registrationId;
+            this.name = name;
+            this.email = email;
+            this.status = status;
+            this.registeredAt = registeredAt;
+            intervals.reset();
+        }
+
+        String[] toCsv(long now) {
+            return new String[] {
+                name,
+                email,
+                status,
+                registeredAt.toString(),
+                formatDuration(intervals.totalSecondsAt(now)),
+                formatTime(intervals.getFirstCheckin()),
+                formatTime(intervals.getLastCheckout())
+            };
+        }
+    }
+
+    private static String formatTime(long epochSecond) {
+        return epochSecond == AttendanceIntervals.NONE ? "N/A" : Instant.ofEpochSecond(epochSecond).toString();
+    }
+
+    private static String formatDuration(long totalSeconds) {
         if (totalSeconds < 60) {
             // Less than 1 minute: show as seconds
             return totalSeconds + "s";
@@ -130,22 +175,4 @@ public class ExportService {
             return String.format("%d:%02d", hours, minutes);
         }
     }
-
-    private String getFirstCheckinTime(List<AttendanceEvent> events) {
-        return events.stream()
-            .filter(e -> e.getEventType() == AttendanceEventType.CHECKIN)
-            .findFirst()
-            .map(e -> e.getCreatedAt().toString())
-            .orElse("N/A");
-    }
-
-    private String getLastCheckoutTime(List<AttendanceEvent> events) {
-        return events.stream()
-            .filter(e -> e.getEventType() == AttendanceEventType.CHECKOUT)
-            .reduce((first, second) -> second)
-            .map(e -> e.getCreatedAt().toString())
-            .orElse("N/A");
-    }
-
-
 }
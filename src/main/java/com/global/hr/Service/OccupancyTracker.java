@@ -0,0 +1,128 @@
+package com.global.hr.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.global.hr.DTO.OccupancyResponse;
+import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.Repo.AttendanceLedgerRepo;
+import com.global.hr.events.AttendanceRecordedEvent;
+import com.global.hr.events.EventDeletedEvent;
+import com.global.hr.events.RegistrationCreatedEvent;
+
+/**
+ * In-memory headcount per event: how many registrations are registered only,
+ * active, paused or checked out. Counters move on commit of each scan and are
+ * loaded from attendance_ledgers at startup; bulk operations and a periodic
+ * reconcile reload them, so any drift is short-lived. Counts are per JVM,
+ * which assumes a single application instance.
+ */
+@Service
+public class OccupancyTracker {
+
+    private final AttendanceLedgerRepo ledgerRepo;
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    public OccupancyTracker(AttendanceLedgerRepo ledgerRepo) {
+        this.ledgerRepo = ledgerRepo;
+    }
+
+    public OccupancyResponse occupancy(Long eventId) {
+        Counters c = counters.get(eventId);
+        if (c == null) return new OccupancyResponse(eventId, 0, 0, 0, 0);
+        return new OccupancyResponse(eventId, c.registered.sum(), c.active.sum(), c.paused.sum(), c.checkedOut.sum());
+    }
+
+    /**
+     * Attendees checked in right now, across all events.
+     */
+    public long totalActive() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.active.sum();
+        }
+        return total;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${occupancy.reconcile-ms:300000}", fixedDelayString = "${occupancy.reconcile-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Counters> loaded = new HashMap<>();
+        load(ledgerRepo.countByEventAndLastEventType(), loaded);
+        counters.keySet().retainAll(loaded.keySet());
+        counters.putAll(loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceRecorded(AttendanceRecordedEvent event) {
+        if (event.getRegistrationId() == null) {
+            // bulk operation: the per-registration transitions are not in the message
+            rebuildEvent(event.getEventId());
+            return;
+        }
+        Counters c = countersFor(event.getEventId());
+        bucket(c, event.getPreviousType()).decrement();
+        bucket(c, event.getType()).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationCreated(RegistrationCreatedEvent event) {
+        countersFor(event.getEventId()).registered.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        counters.remove(event.getEventId());
+    }
+
+    private void rebuildEvent(Long eventId) {
+        Map<Long, Counters> loaded = new HashMap<>();
+        load(ledgerRepo.countByLastEventTypeForEvent(eventId), loaded);
+        counters.put(eventId, loaded.getOrDefault(eventId, new Counters()));
+    }
+
+    private static void load(List<Object[]> rows, Map<Long, Counters> into) {
+        for (Object[] row : rows) {
+            Counters c = into.computeIfAbsent((Long) row[0], id -> new Counters());
+            bucket(c, (AttendanceEventType) row[1]).add((Long) row[2]);
+        }
+    }
+
+    private Counters countersFor(Long eventId) {
+        return counters.computeIfAbsent(eventId, id -> new Counters());
+    }
+
+    // same buckets as the roster status
+    private static LongAdder bucket(Counters c, AttendanceEventType type) {
+        if (type == null) return c.registered;
+        switch (type) {
+            case CHECKIN:
+            case RESUME:
+                return c.active;
+            case PAUSE:
+                return c.paused;
+            case CHECKOUT:
+                return c.checkedOut;
+            default:
+                return c.registered;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder registered = new LongAdder();
+        final LongAdder active = new LongAdder();
+        final LongAdder paused = new LongAdder();
+        final LongAdder checkedOut = new LongAdder();
+    }
+}
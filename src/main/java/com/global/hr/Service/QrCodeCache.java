@@ -0,0 +1,240 @@
+package com.global.hr.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.global.hr.DTO.QrCacheStatsResponse;
+
+/**
+ * Rendered QR images keyed by (code, size, format, render version).
+ * Registration codes never change and a renderer change bumps the version, so
+ * an entry never goes stale; images of older versions just age out of the LRU. Images are kept in an LRU capped in
+ * bytes and, when qr.cache.dir is set, also written to disk under the SHA-256
+ * of the key, so they survive restarts and evictions. The disk tier has its own
+ * byte budget (qr.cache.disk-max-bytes) and evicts the least recently used
+ * files; a file's modification time records its last use across restarts.
+ */
+@Service
+public class QrCodeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QrCodeCache.class);
+
+    private final long maxBytes;
+    private final Path diskDir;
+
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // files of the disk tier in least recently used order, with their sizes
+    private final long maxDiskBytes;
+    private final LinkedHashMap<Path, Long> diskFiles = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskBytes;
+    private final LongAdder diskEvictions = new LongAdder();
+
+    public QrCodeCache(@Value("${qr.cache.max-bytes:16777216}") long maxBytes,
+                       @Value("${qr.cache.dir:}") String diskDir,
+                       @Value("${qr.cache.disk-max-bytes:268435456}") long maxDiskBytes) {
+        this.maxBytes = maxBytes;
+        this.diskDir = diskDir == null || diskDir.isBlank() ? null : Paths.get(diskDir);
+        this.maxDiskBytes = maxDiskBytes;
+        if (this.diskDir != null) loadDiskIndex();
+    }
+
+    /**
+     * Cached image for the key, rendering (and caching) it on a miss.
+     */
+    public byte[] get(String code, int width, int height, String format, int renderVersion, Supplier<byte[]> render) {
+        String key = "v" + renderVersion + ":" + format + ":" + width + "x" + height + ":" + code;
+        synchronized (entries) {
+            byte[] cached = entries.get(key);
+            if (cached != null) {
+                memoryHits.increment();
+                return cached;
+            }
+        }
+        byte[] image = readDisk(key, format);
+        if (image != null) {
+            diskHits.increment();
+        } else {
+            misses.increment();
+            image = render.get();
+            writeDisk(key, format, image);
+        }
+        putMemory(key, image);
+        return image;
+    }
+
+    public QrCacheStatsResponse stats() {
+        int entryCount;
+        long entryBytes;
+        synchronized (entries) {
+            entryCount = entries.size();
+            entryBytes = bytes;
+        }
+        synchronized (diskFiles) {
+            return new QrCacheStatsResponse(entryCount, entryBytes, maxBytes, memoryHits.sum(), diskHits.sum(),
+                misses.sum(), evictions.sum(), diskDir != null,
+                diskFiles.size(), diskBytes, maxDiskBytes, diskEvictions.sum());
+        }
+    }
+
+    private void putMemory(String key, byte[] image) {
+        if (image.length > maxBytes) return;
+        synchronized (entries) {
+            byte[] previous = entries.put(key, image);
+            if (previous != null) bytes -= previous.length;
+            bytes += image.length;
+            Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private byte[] readDisk(String key, String format) {
+        if (diskDir == null) return null;
+        Path file = diskPath(key, format);
+        try {
+            if (!Files.exists(file)) return null;
+            byte[] image = Files.readAllBytes(file);
+            synchronized (diskFiles) {
+                // refresh its place in the LRU
+                diskFiles.get(file);
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return image;
+        } catch (IOException ex) {
+            log.warn("Could not read cached QR image {}", file, ex);
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, String format, byte[] image) {
+        if (diskDir == null) return;
+        if (image.length > maxDiskBytes) return;
+        Path file = diskPath(key, format);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            // written aside and moved into place so readers never see a partial file
+            tmp = Files.createTempFile(file.getParent(), "qr", ".tmp");
+            Files.write(tmp, image);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write cached QR image {}", file, ex);
+            deleteQuietly(tmp);
+            return;
+        }
+        List<Path> victims = new ArrayList<>();
+        synchronized (diskFiles) {
+            Long previous = diskFiles.put(file, (long) image.length);
+            if (previous != null) diskBytes -= previous;
+            diskBytes += image.length;
+            Iterator<Map.Entry<Path, Long>> eldest = diskFiles.entrySet().iterator();
+            while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+                Map.Entry<Path, Long> victim = eldest.next();
+                diskBytes -= victim.getValue();
+                victims.add(victim.getKey());
+                eldest.remove();
+                diskEvictions.increment();
+            }
+        }
+        victims.forEach(QrCodeCache::deleteQuietly);
+    }
+
+    // index the files left by earlier runs, oldest use first; drop temporaries of interrupted writes
+    private void loadDiskIndex() {
+        if (!Files.isDirectory(diskDir)) return;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(diskDir, 2)) {
+            walk.filter(Files::isRegularFile).forEach(files::add);
+        } catch (IOException ex) {
+            log.warn("Could not index cached QR images in {}", diskDir, ex);
+            return;
+        }
+        files.removeIf(file -> {
+            if (!file.getFileName().toString().endsWith(".tmp")) return false;
+            deleteQuietly(file);
+            return true;
+        });
+        files.sort(Comparator.comparingLong(QrCodeCache::lastModified));
+        for (Path file : files) {
+            try {
+                long size = Files.size(file);
+                diskFiles.put(file, size);
+                diskBytes += size;
+            } catch (IOException ex) {
+                log.warn("Could not index cached QR image {}", file, ex);
+            }
+        }
+        // the budget may have been lowered since the files were written
+        Iterator<Map.Entry<Path, Long>> eldest = diskFiles.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+            Map.Entry<Path, Long> victim = eldest.next();
+            diskBytes -= victim.getValue();
+            deleteQuietly(victim.getKey());
+            eldest.remove();
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete cached QR file {}", file, ex);
+        }
+    }
+
+    // content-addressed: <dir>/<first two hex digits>/<sha-256 of the key>.<format>
+    private Path diskPath(String key, String format) {
+        String hash = sha256(key);
+        return diskDir.resolve(hash.substring(0, 2)).resolve(hash + "." + format);
+    }
+
+    static String sha256(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package com.global.hr.Service;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.Map;
 
 @Service
 public class QrCodeService {
 
+    // bump when the rendered bytes change, so old ETags and cached images stop matching
+    private static final int RENDER_VERSION = 2;
+    // one bit per module; scaling and the quiet zone are left to QrImageEncoder
+    private static final Map<EncodeHintType, Object> MODULE_HINTS = Map.of(EncodeHintType.MARGIN, 0);
+
+    private final QrCodeCache cache;
+
+    public QrCodeService(QrCodeCache cache) {
+        this.cache = cache;
+    }
+
     public byte[] generatePng(String text, int width, int height) {
+        return cache.get(text, width, height, "png", RENDER_VERSION, () -> QrImageEncoder.png(encode(text), width, height));
+    }
+
+    public byte[] generateSvg(String text, int width, int height) {
+        return cache.get(text, width, height, "svg", RENDER_VERSION, () -> QrImageEncoder.svgBytes(encode(text), width, height));
+    }
+
+    /**
+     * Strong validator for the image of this code in this format and size, known without rendering it.
+     */
+    public String etag(String text, int width, int height, String format) {
+        return "\"qr" + RENDER_VERSION + "-" + QrCodeCache.sha256(format + ":" + width + "x" + height + ":" + text) + "\"";
+    }
+
+    /**
+     * The QR module matrix for the text, without quiet zone.
+     */
+    public BitMatrix encode(String text) {
         try {
-            QRCodeWriter writer = new QRCodeWriter();
-            BitMatrix matrix = writer.encode(text, BarcodeFormat.QR_CODE, width, height);
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(matrix, "PNG", out);
-            return out.toByteArray();
-        } catch (WriterException | IOException e) {
+            return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0, MODULE_HINTS);
+        } catch (WriterException e) {
             throw new RuntimeException("Failed to generate QR", e);
         }
     }
-}
\ No newline at end of file
+}
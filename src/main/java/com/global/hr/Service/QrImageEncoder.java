@@ -0,0 +1,197 @@
+package com.global.hr.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Writes a QR module matrix (one bit per module, no quiet zone) straight to a
+ * 1-bit grayscale PNG or to SVG, without a BufferedImage or ImageIO.
+ *
+ * Layout matches ZXing's QRCodeWriter: a 4-module quiet zone, the largest
+ * whole-pixel module size that fits, and the code centred in the image. Each
+ * module row is packed once and repeated for its pixel rows. Deflater and row
+ * buffers are reused per thread.
+ */
+public final class QrImageEncoder {
+
+    private static final int QUIET_ZONE = 4;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private QrImageEncoder() {
+    }
+
+    /**
+     * PNG of (at least) width x height pixels, black modules on white.
+     */
+    public static byte[] png(BitMatrix modules, int requestedWidth, int requestedHeight) {
+        int n = modules.getWidth();
+        // like QRCodeWriter, never smaller than the code with its quiet zone
+        int width = Math.max(requestedWidth, n + 2 * QUIET_ZONE);
+        int height = Math.max(requestedHeight, n + 2 * QUIET_ZONE);
+        int multiple = Math.min(width / (n + 2 * QUIET_ZONE), height / (n + 2 * QUIET_ZONE));
+        int left = (width - n * multiple) / 2;
+        int top = (height - n * multiple) / 2;
+        int rowBytes = (width + 7) / 8;
+
+        Buffers buf = BUFFERS.get();
+        // filter byte (0 = none) followed by packed pixels, 1 = white
+        byte[] blank = buf.blankRow(rowBytes + 1);
+        byte[] row = buf.row(rowBytes + 1);
+        Deflater deflater = buf.deflater;
+        deflater.reset();
+        ByteArrayOutputStream idat = new ByteArrayOutputStream(1024);
+
+        int moduleRow = -1;
+        for (int y = 0; y < height; y++) {
+            int my = y < top ? -1 : (y - top) / multiple;
+            if (my < 0 || my >= n) {
+                deflate(deflater, blank, rowBytes + 1, buf.chunk, idat);
+                continue;
+            }
+            if (my != moduleRow) {
+                packRow(modules, my, n, multiple, left, rowBytes, row);
+                moduleRow = my;
+            }
+            deflate(deflater, row, rowBytes + 1, buf.chunk, idat);
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            int len = deflater.deflate(buf.chunk);
+            idat.write(buf.chunk, 0, len);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(idat.size() + 64);
+        out.write(PNG_SIGNATURE, 0, PNG_SIGNATURE.length);
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 1;  // bit depth
+        ihdr[9] = 0;  // grayscale
+        // compression, filter and interlace methods are all 0
+        writeChunk(out, "IHDR", ihdr, ihdr.length, buf.crc);
+        byte[] data = idat.toByteArray();
+        writeChunk(out, "IDAT", data, data.length, buf.crc);
+        writeChunk(out, "IEND", data, 0, buf.crc);
+        return out.toByteArray();
+    }
+
+    /**
+     * SVG drawn in module units (quiet zone included) and scaled to width x height.
+     */
+    public static String svg(BitMatrix modules, int width, int height) {
+        int size = svgSize(modules);
+        StringBuilder sb = new StringBuilder(160 + modules.getWidth() * modules.getWidth());
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+          .append("\" height=\"").append(height)
+          .append("\" viewBox=\"0 0 ").append(size).append(' ').append(size)
+          .append("\" shape-rendering=\"crispEdges\">")
+          .append("<rect width=\"").append(size).append("\" height=\"").append(size).append("\" fill=\"#fff\"/>")
+          .append("<path fill=\"#000\" d=\"");
+        appendSvgPath(modules, sb);
+        sb.append("\"/></svg>");
+        return sb.toString();
+    }
+
+    /**
+     * Side of the SVG viewBox for this matrix: the modules plus the quiet zone on both sides.
+     */
+    public static int svgSize(BitMatrix modules) {
+        return modules.getWidth() + 2 * QUIET_ZONE;
+    }
+
+    /**
+     * Path data of the dark modules in viewBox units, merged into one horizontal run per row segment.
+     */
+    public static void appendSvgPath(BitMatrix modules, StringBuilder sb) {
+        int n = modules.getWidth();
+        for (int y = 0; y < n; y++) {
+            int x = 0;
+            while (x < n) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < n && modules.get(x, y)) x++;
+                int run = x - start;
+                sb.append('M').append(start + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                  .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+    }
+
+    public static byte[] svgBytes(BitMatrix modules, int width, int height) {
+        return svg(modules, width, height).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void packRow(BitMatrix modules, int my, int n, int multiple, int left, int rowBytes, byte[] row) {
+        // start all white, then clear the bits of dark pixels
+        Arrays.fill(row, 1, rowBytes + 1, (byte) 0xff);
+        row[0] = 0;
+        for (int mx = 0; mx < n; mx++) {
+            if (!modules.get(mx, my)) continue;
+            int from = left + mx * multiple;
+            for (int x = from; x < from + multiple; x++) {
+                row[1 + (x >> 3)] &= (byte) ~(0x80 >>> (x & 7));
+            }
+        }
+    }
+
+    private static void deflate(Deflater deflater, byte[] input, int len, byte[] chunk, ByteArrayOutputStream out) {
+        deflater.setInput(input, 0, len);
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(chunk);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data, int len, CRC32 crc) {
+        byte[] header = new byte[8];
+        putInt(header, 0, len);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(typeBytes, 0, header, 4, 4);
+        out.write(header, 0, 8);
+        out.write(data, 0, len);
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, len);
+        byte[] trailer = new byte[4];
+        putInt(trailer, 0, (int) crc.getValue());
+        out.write(trailer, 0, 4);
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static final class Buffers {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        final CRC32 crc = new CRC32();
+        final byte[] chunk = new byte[8192];
+        private byte[] row = new byte[0];
+        private byte[] blank = new byte[0];
+
+        byte[] row(int len) {
+            if (row.length < len) row = new byte[len];
+            return row;
+        }
+
+        byte[] blankRow(int len) {
+            if (blank.length < len) {
+                blank = new byte[len];
+                Arrays.fill(blank, 1, len, (byte) 0xff);
+            }
+            return blank;
+        }
+    }
+}
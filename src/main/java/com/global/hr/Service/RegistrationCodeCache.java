@@ -0,0 +1,159 @@
+package com.global.hr.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.global.hr.DTO.RegistrationRef;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.events.EventChangedEvent;
+import com.global.hr.events.EventDeletedEvent;
+import com.global.hr.events.RegistrationCreatedEvent;
+
+/**
+ * Resolves scanned codes to registration/event/user ids. A Bloom filter of all
+ * valid codes rejects garbage reads (foreign barcodes, old badges) without a
+ * database round trip; known codes are kept in a size-bounded LRU.
+ *
+ * A filter miss is trusted. The filter learns codes committed on this node as
+ * they commit and is rebuilt from the database every scan.code-cache.refresh-ms,
+ * so a code registered on another node (or outside the application) is
+ * rejected until the next rebuild, at most that long. Codes the filter lets
+ * through but the database does not know (false positives) are remembered as
+ * misses for a few seconds.
+ */
+@Service
+public class RegistrationCodeCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RegistrationRepo registrationRepo;
+    private final Map<String, RegistrationRef> cache;
+    // code -> time (ms) until which it is known not to exist
+    private final Map<String, Long> misses;
+    private final long missTtlMs;
+
+    // null until loaded at startup; until then every code "might" be valid
+    private volatile CodeBloomFilter bloom;
+    private long bloomInsertions;
+    // rebuilds and inserts are serialized so a code committed mid-rebuild is never lost
+    private final Object filterLock = new Object();
+
+    public RegistrationCodeCache(RegistrationRepo registrationRepo,
+                                 @Value("${scan.code-cache.size:50000}") int cacheSize,
+                                 @Value("${scan.code-cache.miss-ttl-ms:5000}") long missTtlMs) {
+        this.registrationRepo = registrationRepo;
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RegistrationRef> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.misses = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.missTtlMs = missTtlMs;
+    }
+
+    /**
+     * False if the code was not issued as of the last rebuild and was not
+     * committed on this node since; never touches the database.
+     */
+    public boolean mightBeValid(String code) {
+        CodeBloomFilter filter = bloom;
+        return filter == null || filter.mightContain(code);
+    }
+
+    /**
+     * Registration/event/user ids of a code: from the LRU, else from the
+     * database, unless the filter rules the code out first.
+     */
+    public Optional<RegistrationRef> lookup(String code) {
+        if (code == null || !mightBeValid(code)) return Optional.empty();
+        synchronized (cache) {
+            RegistrationRef ref = cache.get(code);
+            if (ref != null) return Optional.of(ref);
+            Long missUntil = misses.get(code);
+            if (missUntil != null) {
+                if (missUntil > System.currentTimeMillis()) return Optional.empty();
+                misses.remove(code);
+            }
+        }
+        Optional<RegistrationRef> ref = registrationRepo.findRefByCode(code);
+        synchronized (cache) {
+            if (ref.isPresent()) {
+                cache.put(code, ref.get());
+            } else {
+                misses.put(code, System.currentTimeMillis() + missTtlMs);
+            }
+        }
+        return ref;
+    }
+
+    /**
+     * Load every issued code, wherever it was committed. A full reload rather
+     * than "ids above the last one seen": ids handed out in pooled blocks commit
+     * out of order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${scan.code-cache.refresh-ms:30000}", fixedDelayString = "${scan.code-cache.refresh-ms:30000}")
+    public void rebuildFilter() {
+        synchronized (filterLock) {
+            List<String> codes = registrationRepo.findAllCodes();
+            // leave headroom so new registrations don't degrade the filter right away
+            CodeBloomFilter filter = new CodeBloomFilter(Math.max(10_000, codes.size() * 2L), FALSE_POSITIVE_RATE);
+            for (String code : codes) {
+                filter.put(code);
+            }
+            bloomInsertions = codes.size();
+            bloom = filter;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRegistrationCreated(RegistrationCreatedEvent event) {
+        addToFilter(event.getCode());
+        synchronized (cache) {
+            misses.remove(event.getCode());
+            cache.put(event.getCode(), new RegistrationRef(event.getRegistrationId(), event.getEventId(), event.getUserId()));
+        }
+    }
+
+    private void addToFilter(String code) {
+        synchronized (filterLock) {
+            CodeBloomFilter filter = bloom;
+            if (filter == null) return;
+            filter.put(code);
+            if (++bloomInsertions > filter.capacity()) rebuildFilter();
+        }
+    }
+
+    // an event marked as being deleted stops resolving its codes
+    @TransactionalEventListener
+    public void onEventChanged(EventChangedEvent event) {
+        if (event.isCreated()) return;
+        synchronized (cache) {
+            cache.values().removeIf(ref -> ref.getEventId().equals(event.getEventId()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventDeleted(EventDeletedEvent event) {
+        synchronized (cache) {
+            cache.values().removeIf(ref -> ref.getEventId().equals(event.getEventId()));
+        }
+        // Bloom filters cannot forget entries, so start over from the remaining codes
+        rebuildFilter();
+    }
+}
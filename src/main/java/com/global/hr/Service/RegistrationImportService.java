@@ -0,0 +1,327 @@
+package com.global.hr.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global.hr.DTO.RegistrationImportResponse;
+import com.global.hr.DTO.RegistrationImportRow;
+import com.global.hr.Entity.AttendanceLedger;
+import com.global.hr.Entity.Event;
+import com.global.hr.Entity.Registration;
+import com.global.hr.Entity.RegistrationStatus;
+import com.global.hr.Entity.User;
+import com.global.hr.Repo.AttendanceLedgerRepo;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.Repo.UserRepo;
+import com.global.hr.events.RegistrationCreatedEvent;
+import com.global.hr.events.UserRegisteredEvent;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Registers a CSV list of people (columns email, name, password; header
+ * required, only email mandatory) for one event. Rows are read as a stream and
+ * handled in chunks: users and registrations of a chunk are looked up with one
+ * query each, passwords of new users are hashed in parallel, and the inserts
+ * go out as JDBC batches in one transaction per chunk.
+ *
+ * Existing accounts are registered as they are; name and password only
+ * matter for new ones, and a new account needs a password.
+ */
+@Service
+public class RegistrationImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationImportService.class);
+
+    private final EventRepo eventRepo;
+    private final UserRepo userRepo;
+    private final RegistrationRepo registrationRepo;
+    private final AttendanceLedgerRepo ledgerRepo;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final ExecutorService hashWorkers;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RegistrationImportService(EventRepo eventRepo, UserRepo userRepo, RegistrationRepo registrationRepo,
+                                     AttendanceLedgerRepo ledgerRepo, PasswordEncoder passwordEncoder,
+                                     TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                                     @Value("${import.chunk-size:500}") int chunkSize,
+                                     @Value("${import.hash-threads:4}") int hashThreads) {
+        this.eventRepo = eventRepo;
+        this.userRepo = userRepo;
+        this.registrationRepo = registrationRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.hashWorkers = Executors.newFixedThreadPool(hashThreads, runnable -> {
+            Thread thread = new Thread(runnable, "import-hash-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RegistrationImportResponse importCsv(Long eventId, Reader csv) throws IOException {
+        Event event = eventRepo.findById(eventId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+        if (event.isDeleting()) {
+            throw new IllegalStateException("Event is being deleted");
+        }
+        List<RegistrationImportRow> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        try (CSVReader reader = new CSVReader(csv)) {
+            Columns columns = Columns.of(reader.readNext());
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String[] fields;
+            while ((fields = reader.readNext()) != null) {
+                if (fields.length == 1 && fields[0].isBlank()) continue;
+                chunk.add(columns.row(reader.getLinesRead(), fields));
+                if (chunk.size() == chunkSize) {
+                    importChunk(eventId, chunk, seenEmails, results);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) importChunk(eventId, chunk, seenEmails, results);
+        } catch (CsvValidationException ex) {
+            // rows before the malformed line are already imported and reported
+            results.add(new RegistrationImportRow(ex.getLineNumber(), null, "ERROR", null, "Malformed CSV: " + ex.getMessage()));
+        }
+        return summarize(eventId, results);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashWorkers.shutdownNow();
+    }
+
+    private void importChunk(Long eventId, List<Row> chunk, Set<String> seenEmails, List<RegistrationImportRow> results) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.email.isEmpty() || row.email.indexOf('@') < 1) {
+                row.fail("ERROR", "Invalid email");
+            } else if (!seenEmails.add(row.key())) {
+                row.fail("DUPLICATE", "Same email earlier in the file");
+            } else {
+                valid.add(row);
+            }
+        }
+
+        Map<String, User> existing = new HashMap<>();
+        if (!valid.isEmpty()) {
+            for (User user : userRepo.findByEmailIn(valid.stream().map(row -> row.email).toList())) {
+                existing.put(user.getEmail().toLowerCase(Locale.ROOT), user);
+            }
+        }
+
+        // BCrypt is the slow part; hash all new accounts of the chunk at once
+        Map<Row, Future<String>> hashes = new HashMap<>();
+        for (Row row : valid) {
+            if (existing.containsKey(row.key())) continue;
+            if (row.password.isEmpty()) {
+                row.fail("ERROR", "Password required for a new user");
+                continue;
+            }
+            String password = row.password;
+            hashes.put(row, hashWorkers.submit(() -> passwordEncoder.encode(password)));
+        }
+        valid.removeIf(row -> row.outcome != null);
+
+        try {
+            if (!valid.isEmpty()) {
+                Map<Row, String> hashed = awaitHashes(hashes);
+                transactionTemplate.executeWithoutResult(status -> register(eventId, valid, existing, hashed));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // someone registered one of these people meanwhile; the whole chunk was rolled back
+            log.warn("Import chunk for event {} conflicted with a concurrent change", eventId, ex);
+            for (Row row : valid) {
+                row.fail("ERROR", "Conflicting concurrent registration, import this row again");
+            }
+        } finally {
+            // the request may share one persistence context across chunks; don't let it grow
+            entityManager.clear();
+        }
+
+        for (Row row : chunk) {
+            results.add(new RegistrationImportRow(row.line, row.email, row.outcome, row.registrationId, row.message));
+        }
+    }
+
+    private void register(Long eventId, List<Row> rows, Map<String, User> existing, Map<Row, String> hashed) {
+        Event event = eventRepo.getReferenceById(eventId);
+
+        List<User> newUsers = new ArrayList<>();
+        Map<Row, User> users = new HashMap<>();
+        for (Row row : rows) {
+            User user = existing.get(row.key());
+            if (user == null) {
+                user = new User();
+                user.setEmail(row.email);
+                user.setName(row.name.isEmpty() ? null : row.name);
+                user.setPassword(hashed.get(row));
+                newUsers.add(user);
+            }
+            users.put(row, user);
+        }
+        userRepo.saveAll(newUsers);
+
+        Set<Long> alreadyRegistered = existing.isEmpty() ? Set.of() : new HashSet<>(registrationRepo.findRegisteredUserIds(
+            eventId, existing.values().stream().map(User::getId).toList()));
+
+        List<Registration> registrations = new ArrayList<>();
+        List<AttendanceLedger> ledgers = new ArrayList<>();
+        for (Row row : rows) {
+            User user = users.get(row);
+            if (alreadyRegistered.contains(user.getId())) {
+                row.fail("ALREADY_REGISTERED", null);
+                continue;
+            }
+            Registration reg = new Registration();
+            reg.setUser(user);
+            reg.setEvent(event);
+            reg.setCode(UUID.randomUUID().toString().replace("-", ""));
+            reg.setStatus(RegistrationStatus.REGISTERED);
+            registrations.add(reg);
+            ledgers.add(new AttendanceLedger(reg));
+            row.registration = reg;
+        }
+        registrationRepo.saveAll(registrations);
+        ledgerRepo.saveAll(ledgers);
+        // through the repository, so a unique key clash surfaces as DataIntegrityViolationException
+        registrationRepo.flush();
+
+        // listeners (code cache, counters, ETags) run once the chunk commits
+        for (User user : newUsers) {
+            eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
+        }
+        for (Row row : rows) {
+            if (row.registration == null) continue;
+            Registration reg = row.registration;
+            row.outcome = existing.containsKey(row.key()) ? "REGISTERED" : "USER_CREATED";
+            row.registrationId = reg.getId();
+            eventPublisher.publishEvent(new RegistrationCreatedEvent(reg.getId(), eventId, reg.getUser().getId(), reg.getCode()));
+        }
+    }
+
+    private static Map<Row, String> awaitHashes(Map<Row, Future<String>> hashes) {
+        Map<Row, String> hashed = new HashMap<>();
+        try {
+            for (Map.Entry<Row, Future<String>> entry : hashes.entrySet()) {
+                hashed.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+        return hashed;
+    }
+
+    private static RegistrationImportResponse summarize(Long eventId, List<RegistrationImportRow> rows) {
+        int usersCreated = 0, registered = 0, skipped = 0, errors = 0;
+        for (RegistrationImportRow row : rows) {
+            switch (row.getOutcome()) {
+                case "USER_CREATED": usersCreated++; registered++; break;
+                case "REGISTERED": registered++; break;
+                case "ALREADY_REGISTERED": case "DUPLICATE": skipped++; break;
+                default: errors++;
+            }
+        }
+        return new RegistrationImportResponse(eventId, usersCreated, registered, skipped, errors, rows);
+    }
+
+    // header positions, matched case-insensitively
+    private static final class Columns {
+        final int email;
+        final int name;
+        final int password;
+
+        Columns(int email, int name, int password) {
+            this.email = email;
+            this.name = name;
+            this.password = password;
+        }
+
+        static Columns of(String[] header) {
+            if (header == null) throw new IllegalArgumentException("Empty CSV");
+            int email = -1, name = -1, password = -1;
+            for (int i = 0; i < header.length; i++) {
+                // a UTF-8 byte order mark would otherwise stick to the first column name
+                String column = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (column.equals("email")) email = i;
+                else if (column.equals("name")) name = i;
+                else if (column.equals("password")) password = i;
+            }
+            if (email < 0) throw new IllegalArgumentException("CSV header must contain an email column");
+            return new Columns(email, name, password);
+        }
+
+        Row row(long line, String[] fields) {
+            return new Row(line, field(fields, email), field(fields, name), field(fields, password));
+        }
+
+        private static String field(String[] fields, int index) {
+            return index >= 0 && index < fields.length && fields[index] != null ? fields[index].trim() : "";
+        }
+    }
+
+    private static final class Row {
+        final long line;
+        final String email;
+        final String name;
+        final String password;
+        String outcome;
+        String message;
+        Long registrationId;
+        Registration registration;
+
+        Row(long line, String email, String name, String password) {
+            this.line = line;
+            this.email = email;
+            this.name = name;
+            this.password = password;
+        }
+
+        // emails compare case-insensitively, as the users table does
+        String key() {
+            return email.toLowerCase(Locale.ROOT);
+        }
+
+        void fail(String outcome, String message) {
+            this.outcome = outcome;
+            this.message = message;
+        }
+    }
+}
@@ -5,33 +5,45 @@ import java.util.Base64;
 import java.util.UUID;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.global.hr.DTO.RegistrationDtoResponse;
+import com.global.hr.Entity.AttendanceLedger;
 import com.global.hr.Entity.Event;
 import com.global.hr.Entity.Registration;
 import com.global.hr.Entity.RegistrationStatus;
 import com.global.hr.Entity.User;
+import com.global.hr.Repo.AttendanceLedgerRepo;
 import com.global.hr.Repo.EventRepo;
 import com.global.hr.Repo.RegistrationRepo;
 import com.global.hr.Repo.UserRepo;
+import com.global.hr.events.RegistrationCreatedEvent;
 @Service
 public class RegistrationService {
 
+    private static final int QR_SIZE = 300;
+
     private final EventRepo eventRepo;
     private final RegistrationRepo regRepo;
     private final UserRepo userRepo;
     private final QrCodeService qrCodeService;
+    private final AttendanceLedgerRepo ledgerRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RegistrationService(EventRepo eventRepo,
                                RegistrationRepo regRepo,
                                UserRepo userRepo,
-                               QrCodeService qrCodeService) {
+                               QrCodeService qrCodeService,
+                               AttendanceLedgerRepo ledgerRepo,
+                               ApplicationEventPublisher eventPublisher) {
         this.eventRepo = eventRepo;
         this.regRepo = regRepo;
         this.userRepo = userRepo;
         this.qrCodeService = qrCodeService;
+        this.ledgerRepo = ledgerRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -40,6 +52,9 @@ public class RegistrationService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userEmail));
         Event event = eventRepo.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+        if (event.isDeleting()) {
+            throw new IllegalStateException("Event is being deleted.");
+        }
 
         if (regRepo.existsByUserAndEvent(user, event)) {
             throw new IllegalStateException("Already registered for this event.");
@@ -52,22 +67,40 @@ public class RegistrationService {
         reg.setCode(code);
         reg.setStatus(RegistrationStatus.REGISTERED);
         reg = regRepo.save(reg);
+        ledgerRepo.save(new AttendanceLedger(reg));
+        eventPublisher.publishEvent(new RegistrationCreatedEvent(reg.getId(), event.getId(), user.getId(), code));
 
         // What do we encode in QR? Keep it simple: just the code.
         // Later you can encode a URL like https://yourdomain/scan?code=CODE
-        byte[] png = qrCodeService.generatePng(code, 300, 300);
+        byte[] png = qrCodeService.generatePng(code, QR_SIZE, QR_SIZE);
         String base64 = Base64.getEncoder().encodeToString(png);
 
         return new RegistrationDtoResponse(reg.getId(), event.getId(), code, base64);
     }
 
-    public byte[] getQrPngForRegistration(Long regId, Long requestingUserId) {
-        Registration reg = regRepo.findByIdAndUserId(regId, requestingUserId)
-                .orElseThrow(() -> new IllegalArgumentException("Registration not found or not yours."));
-        return qrCodeService.generatePng(reg.getCode(), 300, 300);
+    public String getCodeForRegistration(Long regId, Long requestingUserId) {
+        return regRepo.findByIdAndUserId(regId, requestingUserId)
+                .orElseThrow(() -> new IllegalArgumentException("Registration not found or not yours."))
+                .getCode();
+    }
+
+    public byte[] getQrPng(String code) {
+        return qrCodeService.generatePng(code, QR_SIZE, QR_SIZE);
+    }
+
+    public byte[] getQrSvg(String code) {
+        return qrCodeService.generateSvg(code, QR_SIZE, QR_SIZE);
+    }
+
+    public String getQrEtag(String code, boolean svg) {
+        return qrCodeService.etag(code, QR_SIZE, QR_SIZE, svg ? "svg" : "png");
     }
 
-    public List<RegistrationDtoResponse> getUserRegistrations(String userEmail) {
+    /**
+     * The user's registrations, with the QR image inlined as Base64 or, when
+     * inlineQr is false, only its URL.
+     */
+    public List<RegistrationDtoResponse> getUserRegistrations(String userEmail, boolean inlineQr) {
         User user = userRepo.findByEmail(userEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userEmail));
         
@@ -76,7 +109,7 @@ public class RegistrationService {
                     reg.getId(), 
                     reg.getEvent().getId(), 
                     reg.getCode(), 
-                    Base64.getEncoder().encodeToString(qrCodeService.generatePng(reg.getCode(), 300, 300))
+                    inlineQr ? Base64.getEncoder().encodeToString(getQrPng(reg.getCode())) : null
                 ))
                 .toList();
     }
@@ -0,0 +1,203 @@
+package com.global.hr.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.global.hr.DTO.AttendanceDtoResponse;
+import com.global.hr.Entity.ScanIdempotencyKey;
+import com.global.hr.Repo.ScanIdempotencyKeyRepo;
+import com.global.hr.exception.IdempotencyKeyConflictException;
+
+/**
+ * Idempotency keys for scans: a bounded in-memory LRU in front of the
+ * scan_idempotency_keys table. Keys expire after the configured TTL.
+ */
+@Service
+public class ScanIdempotencyService {
+
+    private final ScanIdempotencyKeyRepo keyRepo;
+    private final Duration ttl;
+    private final Map<String, ScanIdempotencyKey> cache;
+
+    public ScanIdempotencyService(ScanIdempotencyKeyRepo keyRepo,
+                                  @Value("${scan.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                  @Value("${scan.idempotency.cache-size:10000}") int cacheSize) {
+        this.keyRepo = keyRepo;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ScanIdempotencyKey> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Look the key up in memory only; cheap enough to run before taking any lock.
+     */
+    public Optional<AttendanceDtoResponse> findCached(String idempotencyKey, String code) {
+        ScanIdempotencyKey stored;
+        synchronized (cache) {
+            stored = cache.get(idempotencyKey);
+        }
+        return toResponse(stored, code);
+    }
+
+    /**
+     * Look the key up in memory, then in the database. An expired row that
+     * has not been purged yet is dropped so the key can be stored again.
+     */
+    @Transactional
+    public Optional<AttendanceDtoResponse> find(String idempotencyKey, String code) {
+        Optional<AttendanceDtoResponse> cached = findCached(idempotencyKey, code);
+        if (cached.isPresent()) return cached;
+
+        ScanIdempotencyKey stored = keyRepo.findById(idempotencyKey).orElse(null);
+        if (stored == null) return Optional.empty();
+        if (isExpired(stored)) {
+            keyRepo.delete(stored);
+            keyRepo.flush();
+            return Optional.empty();
+        }
+        remember(stored);
+        return toResponse(stored, code);
+    }
+
+    /**
+     * Bulk variant of {@link #find} for batch uploads: one query for all keys
+     * that are not already in memory. Returns the live stored rows by key.
+     */
+    @Transactional
+    public Map<String, ScanIdempotencyKey> findStored(Collection<String> idempotencyKeys) {
+        Map<String, ScanIdempotencyKey> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String key : idempotencyKeys) {
+                ScanIdempotencyKey stored = cache.get(key);
+                if (stored != null && !isExpired(stored)) found.put(key, stored);
+                else missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) return found;
+
+        List<ScanIdempotencyKey> expired = new ArrayList<>();
+        for (ScanIdempotencyKey stored : keyRepo.findAllById(missing)) {
+            if (isExpired(stored)) {
+                expired.add(stored);
+            } else {
+                found.put(stored.getIdempotencyKey(), stored);
+                remember(stored);
+            }
+        }
+        if (!expired.isEmpty()) {
+            keyRepo.deleteAll(expired);
+            keyRepo.flush();
+        }
+        return found;
+    }
+
+    /**
+     * Response to replay for a stored key, checking it was issued for the same code.
+     */
+    public Optional<AttendanceDtoResponse> replayOf(ScanIdempotencyKey stored, String code) {
+        return toResponse(stored, code);
+    }
+
+    /**
+     * Store the result of a scan under its key. The in-memory copy is only
+     * added once the surrounding transaction commits.
+     *
+     * The row is flushed right away, so a concurrent request that stored the
+     * same key first fails here with a DataIntegrityViolationException while
+     * the scan's transaction can still roll back; see {@link #resolveConflict}.
+     */
+    @Transactional
+    public void record(String idempotencyKey, String code, AttendanceDtoResponse response) {
+        ScanIdempotencyKey stored = newKey(idempotencyKey, code, response);
+        keyRepo.saveAndFlush(stored);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(stored);
+                }
+            });
+        } else {
+            remember(stored);
+        }
+    }
+
+    /**
+     * Answer a scan whose transaction was rolled back because {@link #record}
+     * lost the race for its key: the stored outcome if the key was used for the
+     * same code, a conflict if not. Call it outside the failed transaction, so
+     * the winner's row is visible. Rethrows the violation if it was not about
+     * the key.
+     */
+    @Transactional
+    public AttendanceDtoResponse resolveConflict(String idempotencyKey, String code, DataIntegrityViolationException ex) {
+        return find(idempotencyKey, code).orElseThrow(() -> ex);
+    }
+
+    /**
+     * Remember a key in memory only, for scans whose row is written later by
+     * the write-behind pipeline.
+     */
+    public void rememberAccepted(ScanIdempotencyKey pending) {
+        remember(pending);
+    }
+
+    @Scheduled(fixedDelayString = "${scan.idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        keyRepo.deleteExpired(Instant.now().minus(ttl));
+        synchronized (cache) {
+            cache.values().removeIf(this::isExpired);
+        }
+    }
+
+    public ScanIdempotencyKey newKey(String idempotencyKey, String code, AttendanceDtoResponse response) {
+        ScanIdempotencyKey stored = new ScanIdempotencyKey();
+        stored.setIdempotencyKey(idempotencyKey);
+        stored.setRegistrationCode(code);
+        stored.setRegistrationId(response.getRegistrationId());
+        stored.setEventType(response.getStatus());
+        stored.setCreditHours(response.getCreditHours());
+        return stored;
+    }
+
+    private void remember(ScanIdempotencyKey stored) {
+        synchronized (cache) {
+            cache.put(stored.getIdempotencyKey(), stored);
+        }
+    }
+
+    private boolean isExpired(ScanIdempotencyKey stored) {
+        return stored.getCreatedAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    private Optional<AttendanceDtoResponse> toResponse(ScanIdempotencyKey stored, String code) {
+        if (stored == null || isExpired(stored)) return Optional.empty();
+        if (!stored.getRegistrationCode().equals(code)) {
+            throw new IdempotencyKeyConflictException("Idempotency key already used for a different code");
+        }
+        return Optional.of(new AttendanceDtoResponse(
+            stored.getCreditHours(), stored.getRegistrationId(), stored.getEventType()));
+    }
+}
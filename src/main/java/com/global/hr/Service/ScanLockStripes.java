@@ -0,0 +1,96 @@
+package com.global.hr.Service;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global.hr.DTO.ScanLockStatsResponse;
+
+/**
+ * In-process lock stripes keyed by registration code, used instead of a
+ * SELECT ... FOR UPDATE when scan.concurrency.mode=striped. Also keeps the
+ * lock wait statistics for both modes so they can be compared under load.
+ */
+@Component
+public class ScanLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final boolean striped;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder optimisticRetries = new LongAdder();
+
+    public ScanLockStripes(@Value("${scan.concurrency.mode:pessimistic}") String mode,
+                           @Value("${scan.concurrency.stripes:256}") int stripeCount) {
+        this.striped = "striped".equalsIgnoreCase(mode);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isStriped() {
+        return striped;
+    }
+
+    /**
+     * Run the action holding the stripes of all given codes. Stripes are taken
+     * in index order so two callers with overlapping codes cannot deadlock.
+     */
+    public <T> T withLocks(Collection<String> codes, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String code : codes) {
+            if (code != null) indexes.add(stripeIndex(code));
+        }
+        long start = System.nanoTime();
+        int locked = 0;
+        try {
+            for (Integer index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            recordWait(System.nanoTime() - start);
+            return action.get();
+        } finally {
+            for (Integer index : indexes) {
+                if (locked-- == 0) break;
+                stripes[index].unlock();
+            }
+        }
+    }
+
+    public void recordWait(long nanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void recordOptimisticRetry() {
+        optimisticRetries.increment();
+    }
+
+    public ScanLockStatsResponse stats() {
+        long count = acquisitions.sum();
+        return new ScanLockStatsResponse(
+            striped ? "striped" : "pessimistic",
+            count,
+            count == 0 ? 0 : totalWaitNanos.sum() / count / 1000,
+            maxWaitNanos.get() / 1000,
+            optimisticRetries.sum()
+        );
+    }
+
+    private int stripeIndex(String code) {
+        int h = code.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, stripes.length);
+    }
+}
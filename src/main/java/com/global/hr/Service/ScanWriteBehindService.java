@@ -0,0 +1,325 @@
+package com.global.hr.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global.hr.DTO.AttendanceDtoResponse;
+import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.Entity.AttendanceLedger;
+import com.global.hr.Entity.ScanIdempotencyKey;
+import com.global.hr.Repo.AttendanceLedgerRepo;
+import com.global.hr.events.AttendanceRecordedEvent;
+import com.global.hr.exception.ScanQueueFullException;
+
+/**
+ * Optional scan pipeline (scan.write-mode=write-behind): the next state is
+ * decided from ledger state held in memory, the attendance event is queued and
+ * the scan is acknowledged before anything is written. A background writer
+ * flushes the queue to attendance_events, attendance_ledgers, registrations and
+ * scan_idempotency_keys in JDBC batches.
+ *
+ * An acknowledged scan is durable only once flushed (every few milliseconds, and
+ * on shutdown). When the queue is full, scans are rejected with a 503 rather
+ * than queued without bound. The in-memory state belongs to this node, so this
+ * mode assumes a single application instance. A scan that cannot be written
+ * is dropped together with the later scans of its registration queued on top
+ * of it, so a ledger never counts a scan that has no attendance_events row.
+ *
+ * Synchronous paths that write the same rows (batch uploads, bulk checkout,
+ * event deletion) run through exclusively(): it blocks new scans, flushes the
+ * queue and keeps scans out until their transaction has committed, so a queued
+ * ledger upsert can never overwrite what they wrote.
+ */
+@Service
+public class ScanWriteBehindService implements SmartLifecycle {
+
+    private final boolean enabled;
+    private final AttendanceLedgerRepo ledgerRepo;
+    private final ScanIdempotencyService idempotencyService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate flushTransaction;
+    private final WriteBehindQueue<PendingScan> queue;
+
+    private final Map<Long, LiveLedger> ledgers = new ConcurrentHashMap<>();
+    // scans share it, exclusively() owns it
+    private final ReentrantReadWriteLock modeLock = new ReentrantReadWriteLock();
+
+    public ScanWriteBehindService(@Value("${scan.write-mode:sync}") String writeMode,
+                                  @Value("${scan.write-behind.capacity:10000}") int capacity,
+                                  @Value("${scan.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${scan.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+                                  @Value("${scan.write-behind.offer-timeout-ms:50}") long offerTimeoutMs,
+                                  AttendanceLedgerRepo ledgerRepo,
+                                  ScanIdempotencyService idempotencyService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.enabled = "write-behind".equalsIgnoreCase(writeMode);
+        this.ledgerRepo = ledgerRepo;
+        this.idempotencyService = idempotencyService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new WriteBehindQueue<>("scan-write-behind", capacity, batchSize,
+                flushIntervalMs, offerTimeoutMs, this::writeBatch, this::onDropped, scan -> scan.lineage);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decide, apply and queue one scan for a registration. Scans of the same
+     * registration are serialized on its in-memory ledger.
+     */
+    public AttendanceDtoResponse append(Long eventId, Long registrationId, String code, String idempotencyKey, String meta,
+                                        Function<AttendanceEventType, AttendanceEventType> nextType,
+                                        ToDoubleFunction<AttendanceLedger> creditHours) {
+        modeLock.readLock().lock();
+        try {
+            return appendShared(eventId, registrationId, code, idempotencyKey, meta, nextType, creditHours);
+        } finally {
+            modeLock.readLock().unlock();
+        }
+    }
+
+    private AttendanceDtoResponse appendShared(Long eventId, Long registrationId, String code, String idempotencyKey, String meta,
+                                               Function<AttendanceEventType, AttendanceEventType> nextType,
+                                               ToDoubleFunction<AttendanceLedger> creditHours) {
+        LiveLedger current = ledgers.computeIfAbsent(registrationId, this::loadLedger);
+        synchronized (current) {
+            // another thread may have swapped the state while we waited
+            LiveLedger latest = ledgers.get(registrationId);
+            if (latest != current) {
+                return appendShared(eventId, registrationId, code, idempotencyKey, meta, nextType, creditHours);
+            }
+            // a concurrent retry with the same key may have been accepted while we waited
+            if (idempotencyKey != null) {
+                Optional<AttendanceDtoResponse> replay = idempotencyService.findCached(idempotencyKey, code);
+                if (replay.isPresent()) return replay.get();
+            }
+            AttendanceEventType previousType = current.ledger.getLastEventType();
+            AttendanceEventType newType = nextType.apply(previousType);
+            AttendanceLedger next = current.ledger.snapshot();
+            next.apply(newType, Instant.now());
+
+            AttendanceDtoResponse response = new AttendanceDtoResponse(creditHours.applyAsDouble(next), registrationId, newType);
+            ScanIdempotencyKey key = idempotencyKey == null ? null : idempotencyService.newKey(idempotencyKey, code, response);
+            PendingScan pending = new PendingScan(eventId, registrationId, newType, previousType,
+                next.getLastEventAt(), meta, next, key, current.lineage);
+            if (!queue.offer(pending)) {
+                throw new ScanQueueFullException("Scan queue is full, retry shortly");
+            }
+            ledgers.put(registrationId, new LiveLedger(current.lineage, next));
+            // retries are answered from memory until the row is flushed
+            if (key != null) idempotencyService.rememberAccepted(key);
+            return response;
+        }
+    }
+
+    /**
+     * Run a synchronous write of scan-owned rows (batch upload, bulk checkout,
+     * event deletion). Everything queued is written out and the in-memory state
+     * dropped first, and no scan is accepted until work returns, so work must
+     * include the commit of its transaction.
+     */
+    public <T> T exclusively(Supplier<T> work) {
+        if (!enabled) return work.get();
+        modeLock.writeLock().lock();
+        try {
+            queue.flush();
+            ledgers.clear();
+            return work.get();
+        } finally {
+            modeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The in-memory state includes the dropped scan, and so does every scan
+     * queued after it from the same lineage (the queue drops those too). Forget
+     * the lineage under its lock, so no further scan is queued on top of it and
+     * the next one starts from the database.
+     */
+    private void onDropped(PendingScan scan) {
+        while (true) {
+            LiveLedger live = ledgers.get(scan.registrationId);
+            // already reloaded after an earlier drop
+            if (live == null || live.lineage != scan.lineage) return;
+            synchronized (live) {
+                if (ledgers.remove(scan.registrationId, live)) return;
+            }
+        }
+    }
+
+    private LiveLedger loadLedger(Long registrationId) {
+        // always a detached copy: the loaded entity may belong to a request-scoped EntityManager
+        AttendanceLedger ledger = ledgerRepo.findById(registrationId)
+            .map(AttendanceLedger::snapshot)
+            .orElseGet(() -> {
+                AttendanceLedger empty = new AttendanceLedger();
+                empty.setRegistrationId(registrationId);
+                return empty;
+            });
+        return new LiveLedger(new Object(), ledger);
+    }
+
+    private void writeBatch(List<PendingScan> batch) {
+        // only the newest ledger state per registration needs writing
+        Map<Long, PendingScan> latest = new LinkedHashMap<>();
+        List<ScanIdempotencyKey> keys = new ArrayList<>();
+        for (PendingScan scan : batch) {
+            latest.put(scan.registrationId, scan);
+            if (scan.key != null) keys.add(scan.key);
+        }
+        List<PendingScan> ledgerRows = new ArrayList<>(latest.values());
+
+        flushTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(
+                "insert into attendance_events (created_at, event_type, meta, registration_id) values (?, ?, ?, ?)",
+                batch, batch.size(),
+                (ps, scan) -> {
+                    ps.setTimestamp(1, utc(scan.at), utcCalendar());
+                    ps.setString(2, scan.type.name());
+                    ps.setString(3, scan.meta);
+                    ps.setLong(4, scan.registrationId);
+                });
+            jdbcTemplate.batchUpdate(
+                "insert into attendance_ledgers (registration_id, accumulated_seconds, open_session_start, last_event_type, " +
+                "last_event_at, event_count, checkin_count) values (?, ?, ?, ?, ?, ?, ?) on duplicate key update " +
+                "accumulated_seconds = values(accumulated_seconds), open_session_start = values(open_session_start), " +
+                "last_event_type = values(last_event_type), last_event_at = values(last_event_at), " +
+                "event_count = values(event_count), checkin_count = values(checkin_count)",
+                ledgerRows, ledgerRows.size(),
+                (ps, scan) -> {
+                    AttendanceLedger l = scan.ledger;
+                    ps.setLong(1, scan.registrationId);
+                    ps.setLong(2, l.getAccumulatedSeconds());
+                    ps.setTimestamp(3, utc(l.getOpenSessionStart()), utcCalendar());
+                    ps.setString(4, l.getLastEventType().name());
+                    ps.setTimestamp(5, utc(l.getLastEventAt()), utcCalendar());
+                    ps.setInt(6, l.getEventCount());
+                    ps.setInt(7, l.getCheckinCount());
+                });
+            jdbcTemplate.batchUpdate(
+                "update registrations set status = ?, version = version + 1 where id = ?",
+                ledgerRows, ledgerRows.size(),
+                (ps, scan) -> {
+                    ps.setString(1, registrationStatus(scan.ledger.getLastEventType()));
+                    ps.setLong(2, scan.registrationId);
+                });
+            if (!keys.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "insert ignore into scan_idempotency_keys (idempotency_key, registration_code, registration_id, " +
+                    "event_type, credit_hours, created_at) values (?, ?, ?, ?, ?, ?)",
+                    keys, keys.size(),
+                    (ps, key) -> {
+                        ps.setString(1, key.getIdempotencyKey());
+                        ps.setString(2, key.getRegistrationCode());
+                        ps.setLong(3, key.getRegistrationId());
+                        ps.setString(4, key.getEventType().name());
+                        ps.setDouble(5, key.getCreditHours());
+                        ps.setTimestamp(6, utc(key.getCreatedAt()), utcCalendar());
+                    });
+            }
+            // delivered to listeners once this transaction commits
+            for (PendingScan scan : batch) {
+                eventPublisher.publishEvent(new AttendanceRecordedEvent(scan.eventId, scan.registrationId, scan.type, scan.previousType, scan.at));
+            }
+        });
+    }
+
+    private static String registrationStatus(AttendanceEventType lastType) {
+        switch (lastType) {
+            case CHECKIN: case RESUME: return "CHECKED_IN";
+            case PAUSE: return "PAUSED";
+            case CHECKOUT: return "CHECKED_OUT";
+            default: return "REGISTERED";
+        }
+    }
+
+    // Instants are stored in UTC, the same way Hibernate binds them
+    private static Timestamp utc(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+
+    private static Calendar utcCalendar() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    @Override
+    public void start() {
+        if (enabled) queue.start();
+    }
+
+    @Override
+    public void stop() {
+        // flush-on-shutdown: runs before the DataSource is closed
+        queue.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return queue.isRunning();
+    }
+
+    // ledger state of a registration; scans queued from one database load share a lineage
+    private static final class LiveLedger {
+        final Object lineage;
+        final AttendanceLedger ledger;
+
+        LiveLedger(Object lineage, AttendanceLedger ledger) {
+            this.lineage = lineage;
+            this.ledger = ledger;
+        }
+    }
+
+    private static final class PendingScan {
+        final Long eventId;
+        final Long registrationId;
+        final AttendanceEventType type;
+        final AttendanceEventType previousType;
+        final Instant at;
+        final String meta;
+        final AttendanceLedger ledger;
+        final ScanIdempotencyKey key;
+        final Object lineage;
+
+        PendingScan(Long eventId, Long registrationId, AttendanceEventType type, AttendanceEventType previousType,
+                    Instant at, String meta,
+                    AttendanceLedger ledger, ScanIdempotencyKey key, Object lineage) {
+            this.eventId = eventId;
+            this.registrationId = registrationId;
+            this.type = type;
+            this.previousType = previousType;
+            this.at = at;
+            this.meta = meta;
+            this.ledger = ledger;
+            this.key = key;
+            this.lineage = lineage;
+        }
+    }
+}
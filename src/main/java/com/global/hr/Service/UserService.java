@@ -5,8 +5,10 @@ import com.global.hr.Repo.UserRepo;
 import com.global.hr.DTO.UserDtoRequest;
 import com.global.hr.DTO.UserDtoResponse;
 import com.global.hr.DTO.UserDtoLoginResponse;
+import com.global.hr.events.UserRegisteredEvent;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,8 @@ public class UserService {
     private  final UserRepo userRepo;
 	@Autowired
     private  final PasswordEncoder passwordEncoder;
+	@Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder) {
 		super();
@@ -33,6 +37,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
         System.out.println(user.getName()+"has been registered");
         userRepo.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
         return new UserDtoResponse(user.getName(),user.getEmail());
     }
 
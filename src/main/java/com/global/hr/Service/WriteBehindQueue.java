@@ -0,0 +1,229 @@
+package com.global.hr.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue drained by one background thread that hands items to a sink
+ * in batches.
+ *
+ * Semantics:
+ * - offer() waits at most offerTimeoutMs for space and returns false when the
+ *   queue stays full, so callers can push back instead of growing the heap.
+ * - Items are flushed in arrival order, at most maxBatch at a time, as soon as
+ *   they arrive or at least every flushIntervalMs.
+ * - A failing batch is retried a few times, then written one item at a time so
+ *   a single bad item cannot take the rest of the batch with it. Items that
+ *   still fail are dropped (and logged) and passed to onDropped.
+ * - Items of one group (groupOf) build on each other. Once one is dropped,
+ *   every later item of its group is dropped too, in this batch or a later one,
+ *   instead of being written on top of a state that never made it.
+ * - Items accepted but not yet flushed are lost if the JVM dies.
+ * - stop() stops accepting items and flushes everything still queued.
+ */
+public class WriteBehindQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final Consumer<List<T>> sink;
+    private final Consumer<T> onDropped;
+    private final Function<T, Object> groupOf;
+    // groups with a dropped item; only touched under flushLock, forgotten once no item refers to them
+    private final Set<Object> droppedGroups = Collections.newSetFromMap(new WeakHashMap<>());
+
+    // one flush at a time, whether from the writer thread or flush()
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public WriteBehindQueue(String name, int capacity, int maxBatch, long flushIntervalMs,
+                            long offerTimeoutMs, Consumer<List<T>> sink) {
+        this(name, capacity, maxBatch, flushIntervalMs, offerTimeoutMs, sink, item -> { }, item -> null);
+    }
+
+    /**
+     * groupOf returns null for items that do not depend on any other item.
+     */
+    public WriteBehindQueue(String name, int capacity, int maxBatch, long flushIntervalMs,
+                            long offerTimeoutMs, Consumer<List<T>> sink, Consumer<T> onDropped,
+                            Function<T, Object> groupOf) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.sink = sink;
+        this.onDropped = onDropped;
+        this.groupOf = groupOf;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        writer = new Thread(this::runWriter, name + "-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue an item, waiting briefly for space. Returns false if the queue is
+     * full or stopped.
+     */
+    public boolean offer(T item) {
+        if (!running) return false;
+        try {
+            return queue.offer(item, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Synchronously write everything queued so far.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<T> batch = new ArrayList<>(maxBatch);
+            while (queue.drainTo(batch, maxBatch) > 0) {
+                write(batch);
+                batch = new ArrayList<>(maxBatch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting items, wait for the writer and flush what is left.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        while (running) {
+            // hold the flush lock while taking items so a concurrent flush() cannot reorder them
+            flushLock.lock();
+            try {
+                T first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<T> batch = new ArrayList<>(maxBatch);
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts us; the loop condition decides whether to exit
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        int dropped = 0;
+        List<T> writable = new ArrayList<>(batch.size());
+        for (T item : batch) {
+            if (inDroppedGroup(item)) {
+                drop(item);
+                dropped++;
+            } else {
+                writable.add(item);
+            }
+        }
+        RuntimeException failure = writable.isEmpty() ? null : writeWithRetries(writable);
+        if (failure != null) {
+            if (writable.size() > 1) {
+                log.warn("{}: batch of {} items failed {} times, writing them one at a time",
+                    name, writable.size(), MAX_FLUSH_ATTEMPTS, failure);
+            }
+            for (T item : writable) {
+                // an earlier item of the same group may just have been dropped
+                boolean failed = inDroppedGroup(item)
+                    || (writable.size() == 1 ? failure : writeOne(item)) != null;
+                if (failed) {
+                    drop(item);
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.error("{}: dropped {} of {} queued items that could not be written", name, dropped, batch.size(), failure);
+        }
+    }
+
+    private boolean inDroppedGroup(T item) {
+        Object group = groupOf.apply(item);
+        return group != null && droppedGroups.contains(group);
+    }
+
+    private void drop(T item) {
+        Object group = groupOf.apply(item);
+        if (group != null) droppedGroups.add(group);
+        onDropped.accept(item);
+    }
+
+    // null once the batch is written, otherwise the last failure
+    private RuntimeException writeWithRetries(List<T> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.accept(batch);
+                return null;
+            } catch (RuntimeException ex) {
+                if (attempt >= MAX_FLUSH_ATTEMPTS) return ex;
+                log.warn("{}: flush of {} items failed (attempt {}), retrying", name, batch.size(), attempt, ex);
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private RuntimeException writeOne(T item) {
+        try {
+            sink.accept(List.of(item));
+            return null;
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+}
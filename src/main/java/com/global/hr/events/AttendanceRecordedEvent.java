@@ -0,0 +1,64 @@
+package com.global.hr.events;
+
+import java.time.Instant;
+
+import com.global.hr.Entity.AttendanceEventType;
+
+/**
+ * Published when attendance events are written for an event; listeners run
+ * after commit. previousType is the registration's last event type before
+ * this one (null if none). A bulk operation is one message with a null
+ * registrationId and previousType and the number of registrations it touched.
+ */
+public class AttendanceRecordedEvent {
+    private final Long eventId;
+    private final Long registrationId;
+    private final AttendanceEventType type;
+    private final AttendanceEventType previousType;
+    private final Instant at;
+    private final int count;
+
+    public AttendanceRecordedEvent(Long eventId, Long registrationId, AttendanceEventType type,
+                                   AttendanceEventType previousType, Instant at) {
+        this(eventId, registrationId, type, previousType, at, 1);
+    }
+
+    public AttendanceRecordedEvent(Long eventId, Long registrationId, AttendanceEventType type,
+                                   AttendanceEventType previousType, Instant at, int count) {
+        this.eventId = eventId;
+        this.registrationId = registrationId;
+        this.type = type;
+        this.previousType = previousType;
+        this.at = at;
+        this.count = count;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public AttendanceEventType getType() {
+        return type;
+    }
+
+    public AttendanceEventType getPreviousType() {
+        return previousType;
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // one message for a whole bulk operation rather than a single scan
+    public boolean isBulk() {
+        return registrationId == null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.global.hr.events;
+
+/**
+ * Published when an event is created or its details are updated.
+ */
+public class EventChangedEvent {
+    private final Long eventId;
+    private final boolean created;
+
+    public EventChangedEvent(Long eventId) {
+        this(eventId, false);
+    }
+
+    public EventChangedEvent(Long eventId, boolean created) {
+        this.eventId = eventId;
+        this.created = created;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+}
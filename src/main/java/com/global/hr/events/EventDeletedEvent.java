@@ -0,0 +1,16 @@
+package com.global.hr.events;
+
+/**
+ * Published when an event and its registrations are deleted; listeners run after commit.
+ */
+public class EventDeletedEvent {
+    private final Long eventId;
+
+    public EventDeletedEvent(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+}
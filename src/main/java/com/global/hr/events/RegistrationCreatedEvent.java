@@ -0,0 +1,34 @@
+package com.global.hr.events;
+
+/**
+ * Published when a user registers for an event; listeners run after commit.
+ */
+public class RegistrationCreatedEvent {
+    private final Long registrationId;
+    private final Long eventId;
+    private final Long userId;
+    private final String code;
+
+    public RegistrationCreatedEvent(Long registrationId, Long eventId, Long userId, String code) {
+        this.registrationId = registrationId;
+        this.eventId = eventId;
+        this.userId = userId;
+        this.code = code;
+    }
+
+    public Long getRegistrationId() {
+        return registrationId;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
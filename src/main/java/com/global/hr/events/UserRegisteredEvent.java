@@ -0,0 +1,16 @@
+package com.global.hr.events;
+
+/**
+ * Published when a new attendee account is created.
+ */
+public class UserRegisteredEvent {
+    private final Long userId;
+
+    public UserRegisteredEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
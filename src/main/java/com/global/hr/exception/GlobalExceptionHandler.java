@@ -12,6 +12,16 @@ public class GlobalExceptionHandler {
 	        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
 	    }
 
+	    @ExceptionHandler(ScanQueueFullException.class)
+	    public ResponseEntity<String> handleScanQueueFull(ScanQueueFullException ex) {
+	        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(ex.getMessage());
+	    }
+
+	    @ExceptionHandler(IdempotencyKeyConflictException.class)
+	    public ResponseEntity<String> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+	        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+	    }
+
 	    @ExceptionHandler(Exception.class)
 	    public ResponseEntity<String> handleGeneralException(Exception ex) {
 	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong: " + ex.getMessage());
@@ -0,0 +1,9 @@
+package com.global.hr.exception;
+
+// still an IllegalArgumentException, so batch uploads keep reporting it per item
+public class IdempotencyKeyConflictException extends IllegalArgumentException {
+	  public IdempotencyKeyConflictException(String message) {
+	        super(message);
+	    }
+
+}
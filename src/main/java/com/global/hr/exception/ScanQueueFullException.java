@@ -0,0 +1,8 @@
+package com.global.hr.exception;
+
+public class ScanQueueFullException extends RuntimeException {
+	  public ScanQueueFullException(String message) {
+	        super(message);
+	    }
+
+}
@@ -1,6 +1,8 @@
 package com.global.hr.security;
 
 import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +25,8 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    // the only URL that accepts a token in the query string (EventSource cannot set headers)
+    private static final Pattern STREAM_PATH = Pattern.compile("/event/(\\d+)/stream");
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -38,10 +42,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = null;
         String username = null;
 
+        Matcher stream = STREAM_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        String streamToken = request.getParameter("token");
+        if (authHeader == null && streamToken != null && stream.matches()) {
+            username = jwtUtils.getUsernameFromStreamToken(streamToken, Long.valueOf(stream.group(1)));
+            if (username == null) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("{\"error\":\"Invalid or expired stream token\"}");
+                response.setContentType("application/json");
+                return;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Extract token from Authorization header
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
             try {
+                if (jwtUtils.isStreamToken(token)) {
+                    throw new IllegalArgumentException("stream token used as a login token");
+                }
                 username = jwtUtils.getUsernameFromJwtToken(token);
             } catch (Exception e) {
                 logger.warn("Cannot get JWT token or token is invalid: " + e.getMessage());
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -22,6 +23,9 @@ public class JwtUtils {
     // Use a long secret key (at least 64 characters for HS512)
     private final String jwtSecret = "my-super-strong-and-secure-jwt-secret-key-that-is-long-enough-1234567890";
     private final int jwtExpirationMs = 86400000; // 1 day
+    // stream tokens travel in the URL, so they only open one event's stream and only briefly
+    private static final String STREAM_SCOPE = "attendance-stream";
+    public static final int STREAM_TOKEN_EXPIRATION_MS = 60000;
 
     private final Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
 
@@ -35,6 +39,43 @@ public class JwtUtils {
                 .compact();
     }
 
+    public String generateStreamToken(String username, Long eventId) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim("scope", STREAM_SCOPE)
+                .claim("eventId", eventId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + STREAM_TOKEN_EXPIRATION_MS))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * Username of a valid stream token for this event, or null.
+     */
+    public String getUsernameFromStreamToken(String token, Long eventId) {
+        try {
+            Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
+                    .parseClaimsJws(token).getBody();
+            if (!STREAM_SCOPE.equals(claims.get("scope")) || !eventId.equals(claims.get("eventId", Long.class))) {
+                return null;
+            }
+            return claims.getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // stream tokens are not accepted as login tokens
+    public boolean isStreamToken(String token) {
+        try {
+            return Jwts.parserBuilder().setSigningKey(key).build()
+                    .parseClaimsJws(token).getBody().get("scope") != null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     public String getEmailFromJwtToken(String token) {
         return Jwts.parserBuilder().setSigningKey(key).build()
                 .parseClaimsJws(token).getBody().getSubject();
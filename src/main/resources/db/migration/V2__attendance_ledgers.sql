@@ -0,0 +1,13 @@
+-- Per-registration attendance totals, maintained incrementally on every scan
+
+CREATE TABLE attendance_ledgers (
+  registration_id BIGINT NOT NULL,
+  accumulated_seconds BIGINT NOT NULL DEFAULT 0,
+  open_session_start DATETIME(6) DEFAULT NULL,
+  last_event_type ENUM('CHECKIN','CHECKOUT','MANUAL','PAUSE','RESUME') DEFAULT NULL,
+  last_event_at DATETIME(6) DEFAULT NULL,
+  event_count INT NOT NULL DEFAULT 0,
+  checkin_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (registration_id),
+  CONSTRAINT FK_ledger_registration FOREIGN KEY (registration_id) REFERENCES registrations (id)
+);
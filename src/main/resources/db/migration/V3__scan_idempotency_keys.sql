@@ -0,0 +1,12 @@
+-- Idempotency keys sent by scanner apps, kept for a limited time so retries can be answered
+
+CREATE TABLE scan_idempotency_keys (
+  idempotency_key VARCHAR(128) NOT NULL,
+  registration_code VARCHAR(64) NOT NULL,
+  registration_id BIGINT NOT NULL,
+  event_type ENUM('CHECKIN','CHECKOUT','MANUAL','PAUSE','RESUME') NOT NULL,
+  credit_hours DOUBLE NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (idempotency_key),
+  KEY idx_idem_created (created_at)
+);
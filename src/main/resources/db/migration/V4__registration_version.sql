@@ -0,0 +1,3 @@
+-- Optimistic locking column for registrations, bumped on every scan
+
+ALTER TABLE registrations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Background bulk operations (checkout all, delete event) with resumable progress
+
+CREATE TABLE bulk_jobs (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  type ENUM('CHECKOUT_ALL','DELETE_EVENT') NOT NULL,
+  event_id BIGINT NOT NULL,
+  status ENUM('PENDING','RUNNING','SUCCEEDED','FAILED') NOT NULL,
+  total INT NOT NULL DEFAULT 0,
+  processed INT NOT NULL DEFAULT 0,
+  affected INT NOT NULL DEFAULT 0,
+  cursor_id BIGINT DEFAULT NULL,
+  error VARCHAR(1000) DEFAULT NULL,
+  created_at DATETIME(6) NOT NULL,
+  started_at DATETIME(6) DEFAULT NULL,
+  finished_at DATETIME(6) DEFAULT NULL,
+  PRIMARY KEY (id),
+  KEY idx_job_status (status)
+);
@@ -0,0 +1,7 @@
+-- Per-event credit-hours policy overrides; NULL means the application default
+
+ALTER TABLE events
+    ADD COLUMN credit_rounding_minutes INT NULL,
+    ADD COLUMN credit_minimum_minutes INT NULL,
+    ADD COLUMN credit_cap_to_duration BIT(1) NULL,
+    ADD COLUMN credit_clip_to_window BIT(1) NULL;
@@ -0,0 +1,20 @@
+-- Id blocks for users and registrations, handed out 50 at a time by Hibernate
+-- (MySQL has no sequences, so each is a one-row table), seeded past the
+-- current ids. AUTO_INCREMENT is dropped from both id columns: a raw insert
+-- taking the next AUTO_INCREMENT value would collide with the blocks.
+
+CREATE TABLE users_seq (
+  next_val BIGINT
+);
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM users;
+
+CREATE TABLE registrations_seq (
+  next_val BIGINT
+);
+INSERT INTO registrations_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM registrations;
+
+-- both columns are referenced by foreign keys, which MySQL checks on MODIFY
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE users MODIFY id BIGINT NOT NULL;
+ALTER TABLE registrations MODIFY id BIGINT NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,8 @@
+-- Events being deleted in the background refuse scans and registrations;
+-- bulk jobs are claimed atomically so that only one worker runs each
+
+ALTER TABLE events
+    ADD COLUMN deleting BIT(1) NOT NULL DEFAULT b'0';
+
+ALTER TABLE bulk_jobs
+    ADD COLUMN attempt INT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- The roster delta feed re-reads recently recorded attendance events by time,
+-- since rows can commit below the id cursor handed out earlier
+
+CREATE INDEX idx_created ON attendance_events (created_at);
@@ -0,0 +1,79 @@
+package com.global.hr.Entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class AttendanceIntervalsTest {
+
+    private static final byte CHECKIN = AttendanceIntervals.CHECKIN;
+    private static final byte PAUSE = AttendanceIntervals.PAUSE;
+    private static final byte RESUME = AttendanceIntervals.RESUME;
+    private static final byte CHECKOUT = AttendanceIntervals.CHECKOUT;
+    private static final byte MANUAL = AttendanceIntervals.MANUAL;
+
+    @Test
+    void sumsClosedSessionsAndTracksBoundaries() {
+        long[] at = {100, 400, 500, 1000, 2000, 2600};
+        byte[] types = {CHECKIN, PAUSE, RESUME, CHECKOUT, CHECKIN, CHECKOUT};
+
+        AttendanceIntervals result = new AttendanceIntervals().compute(at, types, 0, at.length);
+
+        assertEquals(300 + 500 + 600, result.totalSecondsAt(5000));
+        assertEquals(100, result.getFirstCheckin());
+        assertEquals(2600, result.getLastCheckout());
+        assertEquals(3, result.getSessionCount());
+        assertEquals(CHECKOUT, result.getLastType());
+    }
+
+    @Test
+    void openSessionCountsUpToNow() {
+        long[] at = {100, 200};
+        byte[] types = {CHECKIN, RESUME};
+
+        AttendanceIntervals result = new AttendanceIntervals().compute(at, types, 0, at.length);
+
+        // a RESUME while already open does not restart the session
+        assertEquals(900, result.totalSecondsAt(1000));
+        assertEquals(1, result.getSessionCount());
+        assertEquals(AttendanceIntervals.NONE, result.getLastCheckout());
+    }
+
+    @Test
+    void manualClosesAnOpenSession() {
+        long[] at = {100, 250, 900};
+        byte[] types = {CHECKIN, MANUAL, PAUSE};
+
+        AttendanceIntervals result = new AttendanceIntervals().compute(at, types, 0, at.length);
+
+        assertEquals(150, result.totalSecondsAt(5000));
+    }
+
+    @Test
+    void computesASliceOfSharedColumns() {
+        long[] at = {10, 20, 100, 160};
+        byte[] types = {CHECKIN, CHECKOUT, CHECKIN, CHECKOUT};
+
+        AttendanceIntervals intervals = new AttendanceIntervals();
+
+        assertEquals(10, intervals.compute(at, types, 0, 2).totalSecondsAt(1000));
+        assertEquals(60, intervals.compute(at, types, 2, 4).totalSecondsAt(1000));
+        assertEquals(100, intervals.getFirstCheckin());
+    }
+
+    @Test
+    void ledgerFollowsTheSameRules() {
+        long[] at = {100, 400, 500, 700, 800};
+        byte[] types = {CHECKIN, RESUME, MANUAL, RESUME, PAUSE};
+
+        AttendanceLedger ledger = new AttendanceLedger();
+        for (int i = 0; i < at.length; i++) {
+            ledger.apply(AttendanceIntervals.type(types[i]), Instant.ofEpochSecond(at[i]));
+        }
+        AttendanceIntervals intervals = new AttendanceIntervals().compute(at, types, 0, at.length);
+
+        assertEquals(intervals.totalSecondsAt(1000), ledger.totalSecondsAt(Instant.ofEpochSecond(1000)));
+    }
+}
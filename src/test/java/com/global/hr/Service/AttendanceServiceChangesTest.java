@@ -0,0 +1,104 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.global.hr.DTO.AttendeeRosterChanges;
+import com.global.hr.DTO.EventAttendeeResponse;
+import com.global.hr.Entity.AttendanceLedger;
+import com.global.hr.Entity.Event;
+import com.global.hr.Entity.Registration;
+import com.global.hr.Entity.User;
+import com.global.hr.Repo.AttendanceLedgerRepo;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.Repo.UserRepo;
+
+/**
+ * Runs outside a test transaction: the scans below commit on their own
+ * connections, in the opposite order of their ids.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:changes;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=false"
+})
+class AttendanceServiceChangesTest {
+
+    @Autowired private AttendanceService attendanceService;
+    @Autowired private EventRepo eventRepo;
+    @Autowired private UserRepo userRepo;
+    @Autowired private RegistrationRepo registrationRepo;
+    @Autowired private AttendanceLedgerRepo ledgerRepo;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void reportsAScanThatCommitsBelowAnEarlierCursor() throws Exception {
+        Event event = eventRepo.save(new Event("doors", LocalDateTime.now(), LocalDateTime.now().plusHours(2)));
+        Registration first = register(event, "a");
+        Registration second = register(event, "b");
+        long start = attendanceService.getEventAttendeeChanges(event.getId(), null).getCursor();
+
+        try (Connection slow = dataSource.getConnection(); Connection fast = dataSource.getConnection()) {
+            // the slow door takes the lower id and commits last
+            slow.setAutoCommit(false);
+            insertCheckin(slow, first.getId());
+            fast.setAutoCommit(true);
+            insertCheckin(fast, second.getId());
+
+            AttendeeRosterChanges beforeSlowCommit = attendanceService.getEventAttendeeChanges(event.getId(), start);
+            assertEquals(List.of(second.getId()), registrationIds(beforeSlowCommit));
+
+            slow.commit();
+
+            AttendeeRosterChanges afterSlowCommit =
+                attendanceService.getEventAttendeeChanges(event.getId(), beforeSlowCommit.getCursor());
+            assertTrue(registrationIds(afterSlowCommit).contains(first.getId()));
+        }
+    }
+
+    private Registration register(Event event, String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@changes.example.com");
+        user.setPassword("x");
+        userRepo.save(user);
+
+        Registration reg = new Registration();
+        reg.setUser(user);
+        reg.setEvent(event);
+        reg.setCode("changes-code-" + name);
+        registrationRepo.save(reg);
+        ledgerRepo.save(new AttendanceLedger(reg));
+        return reg;
+    }
+
+    private static void insertCheckin(Connection connection, Long registrationId) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "insert into attendance_events (created_at, event_type, registration_id) values (?, 'CHECKIN', ?)")) {
+            ps.setTimestamp(1, Timestamp.from(Instant.now()));
+            ps.setLong(2, registrationId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static List<Long> registrationIds(AttendeeRosterChanges changes) {
+        return changes.getAttendees().stream().map(EventAttendeeResponse::getRegistrationId).toList();
+    }
+}
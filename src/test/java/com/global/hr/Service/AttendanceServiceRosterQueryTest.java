@@ -0,0 +1,97 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.global.hr.DTO.EventAttendeeResponse;
+import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.Entity.AttendanceLedger;
+import com.global.hr.Entity.Event;
+import com.global.hr.Entity.Registration;
+import com.global.hr.Entity.User;
+import com.global.hr.Repo.AttendanceLedgerRepo;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.Repo.UserRepo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:roster;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.flyway.enabled=false"
+})
+@Transactional
+class AttendanceServiceRosterQueryTest {
+
+    @Autowired private AttendanceService attendanceService;
+    @Autowired private EventRepo eventRepo;
+    @Autowired private UserRepo userRepo;
+    @Autowired private RegistrationRepo registrationRepo;
+    @Autowired private AttendanceLedgerRepo ledgerRepo;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void rosterQueryCountDoesNotGrowWithAttendees() {
+        Event small = eventRepo.save(new Event("small", LocalDateTime.now(), LocalDateTime.now().plusHours(2)));
+        Event large = eventRepo.save(new Event("large", LocalDateTime.now(), LocalDateTime.now().plusHours(2)));
+        register(small, 3);
+        register(large, 60);
+
+        long smallQueries = statementsFor(small.getId(), 3);
+        long largeQueries = statementsFor(large.getId(), 60);
+
+        assertEquals(smallQueries, largeQueries);
+        assertEquals(2, largeQueries);
+    }
+
+    private long statementsFor(Long eventId, int expectedAttendees) {
+        // start from an empty persistence context so nothing is served from it
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<EventAttendeeResponse> roster = attendanceService.getEventAttendees(eventId);
+
+        assertEquals(expectedAttendees, roster.size());
+        return stats.getPrepareStatementCount();
+    }
+
+    private void register(Event event, int attendees) {
+        for (int i = 0; i < attendees; i++) {
+            User user = new User();
+            user.setName(event.getEventName() + "-" + i);
+            user.setEmail(event.getEventName() + "-" + i + "@example.com");
+            user.setPassword("x");
+            userRepo.save(user);
+
+            Registration reg = new Registration();
+            reg.setUser(user);
+            reg.setEvent(event);
+            reg.setCode(event.getEventName() + "-code-" + i);
+            registrationRepo.save(reg);
+
+            AttendanceLedger ledger = new AttendanceLedger(reg);
+            // leave some attendees without any scans
+            if (i % 2 == 0) ledger.apply(AttendanceEventType.CHECKIN, Instant.now());
+            ledgerRepo.save(ledger);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.global.hr.Entity.AttendanceIntervals;
+import com.global.hr.Entity.Event;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.events.EventChangedEvent;
+
+class CreditPolicyTest {
+
+    private static final long NONE = AttendanceIntervals.NONE;
+
+    private final CreditPolicyService defaults = new CreditPolicyService(null, 15, 0, false, false);
+
+    @Test
+    void defaultPolicyRoundsToQuarterHoursAboveFifteenMinutes() {
+        CreditPolicy policy = defaults.compile(new Event("e", null, null));
+        assertEquals(600 / 3600.0, policy.hours(600), 1e-9);
+        assertEquals(0.25, policy.hours(900), 1e-9);
+        assertEquals(1.0, policy.hours(3600 + 7 * 60), 1e-9);
+        assertEquals(1.25, policy.hours(3600 + 8 * 60), 1e-9);
+    }
+
+    @Test
+    void minimumThresholdEarnsNothingBelowIt() {
+        Event event = new Event("e", null, null);
+        event.setCreditMinimumMinutes(30);
+        CreditPolicy policy = defaults.compile(event);
+        assertEquals(0.0, policy.hours(29 * 60), 1e-9);
+        assertEquals(0.5, policy.hours(30 * 60), 1e-9);
+    }
+
+    @Test
+    void capsAtEventDurationAndClipsOpenSessionToWindow() {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 1, 9, 0);
+        Event event = new Event("e", start, start.plusHours(2));
+        event.setCreditCapToDuration(true);
+        event.setCreditClipToWindow(true);
+        CreditPolicy policy = defaults.compile(event);
+
+        long startEpoch = start.atZone(ZoneId.systemDefault()).toEpochSecond();
+        // closed time beyond the event's length is capped
+        assertEquals(2.0, policy.hours(3 * 3600), 1e-9);
+        // checked in an hour early and still in after the end: only the window counts
+        assertEquals(2.0, policy.hours(0, startEpoch - 3600, startEpoch + 4 * 3600), 1e-9);
+        // checked in at the start, half an hour in
+        assertEquals(0.5, policy.hours(0, startEpoch, startEpoch + 1800), 1e-9);
+    }
+
+    @Test
+    void batchMatchesSingleEvaluation() {
+        CreditPolicy policy = defaults.compile(new Event("e", null, null));
+        long[] closed = {0, 600, 3600, 5000};
+        long[] open = {NONE, 1000, NONE, 1500};
+        double[] out = new double[4];
+        policy.hours(closed, open, 2000, out, 4);
+        double[] expected = new double[4];
+        for (int i = 0; i < 4; i++) expected[i] = policy.hours(closed[i], open[i], 2000);
+        assertArrayEquals(expected, out, 1e-12);
+        assertEquals(1.5, out[3], 1e-9);
+    }
+
+    @Test
+    void policyLoadedBeforeAnInvalidationIsNotCached() {
+        Event before = new Event("e", null, null);
+        before.setId(1L);
+        Event after = new Event("e", null, null);
+        after.setId(1L);
+        after.setCreditMinimumMinutes(30);
+
+        AtomicInteger loads = new AtomicInteger();
+        CreditPolicyService[] service = new CreditPolicyService[1];
+        // the first load reads the event just before it is updated and invalidated
+        EventRepo repo = (EventRepo) Proxy.newProxyInstance(EventRepo.class.getClassLoader(),
+            new Class<?>[] {EventRepo.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("findById")) throw new UnsupportedOperationException(method.getName());
+                if (loads.getAndIncrement() > 0) return Optional.of(after);
+                service[0].onEventChanged(new EventChangedEvent(1L));
+                return Optional.of(before);
+            });
+        service[0] = new CreditPolicyService(repo, 15, 0, false, false);
+
+        assertEquals(0.25, service[0].forEvent(1L).hours(15 * 60), 1e-9);
+        assertEquals(0.0, service[0].forEvent(1L).hours(15 * 60), 1e-9);
+        assertEquals(2, loads.get());
+        // a load with no invalidation in between stays cached
+        service[0].forEvent(1L);
+        assertEquals(2, loads.get());
+    }
+}
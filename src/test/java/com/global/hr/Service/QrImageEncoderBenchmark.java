@@ -0,0 +1,91 @@
+package com.global.hr.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+/**
+ * Throughput and allocation of the direct PNG encoder against the previous
+ * QRCodeWriter + MatrixToImageWriter path, for the same code and sizes.
+ * Not part of the test run; start it with
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.global.hr.Service.QrImageEncoderBenchmark
+ *
+ * The gc profiler's gc.alloc.rate.norm column is the allocation per image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrImageEncoderBenchmark {
+
+    private static final String CODE = "3f2a9c0e5b7d4e1f8a6c2b9d0e4f7a1c";
+
+    @Param({"150", "300", "600"})
+    public int size;
+
+    private BitMatrix modules;
+
+    @Setup
+    public void setUp() throws WriterException {
+        modules = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 0, 0, Map.of(EncodeHintType.MARGIN, 0));
+    }
+
+    // what QrCodeService did before: scaled matrix, BufferedImage, ImageIO
+    @Benchmark
+    public byte[] zxingImageIo() throws WriterException, IOException {
+        BitMatrix matrix = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, size, size);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(matrix, "PNG", out);
+        return out.toByteArray();
+    }
+
+    // what QrCodeService does now: module matrix, 1-bit PNG written directly
+    @Benchmark
+    public byte[] direct() throws WriterException {
+        BitMatrix matrix = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 0, 0, Map.of(EncodeHintType.MARGIN, 0));
+        return QrImageEncoder.png(matrix, size, size);
+    }
+
+    // the encoder alone, as on a QR cache miss for a code whose matrix is known
+    @Benchmark
+    public byte[] directEncodeOnly() {
+        return QrImageEncoder.png(modules, size, size);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(QrImageEncoderBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+class QrImageEncoderTest {
+
+    private static final String CODE = "3f2a9c0e5b7d4e1f8a6c2b9d0e4f7a1c";
+
+    @Test
+    void pngMatchesZxingRenderingPixelForPixel() throws Exception {
+        BitMatrix modules = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 0, 0, Map.of(EncodeHintType.MARGIN, 0));
+        BufferedImage direct = ImageIO.read(new ByteArrayInputStream(QrImageEncoder.png(modules, 300, 300)));
+        BufferedImage reference = MatrixToImageWriter.toBufferedImage(
+            new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 300, 300));
+
+        assertEquals(reference.getWidth(), direct.getWidth());
+        assertEquals(reference.getHeight(), direct.getHeight());
+        for (int y = 0; y < reference.getHeight(); y++) {
+            for (int x = 0; x < reference.getWidth(); x++) {
+                assertEquals(reference.getRGB(x, y), direct.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void pngIsNeverSmallerThanTheCode() throws Exception {
+        BitMatrix modules = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 0, 0, Map.of(EncodeHintType.MARGIN, 0));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrImageEncoder.png(modules, 10, 10)));
+        assertEquals(modules.getWidth() + 8, image.getWidth());
+    }
+
+    @Test
+    void svgDrawsModulesInsideQuietZone() throws Exception {
+        BitMatrix modules = new QRCodeWriter().encode(CODE, BarcodeFormat.QR_CODE, 0, 0, Map.of(EncodeHintType.MARGIN, 0));
+        String svg = QrImageEncoder.svg(modules, 300, 300);
+        int size = modules.getWidth() + 8;
+        assertTrue(svg.startsWith("<svg "));
+        assertTrue(svg.contains("viewBox=\"0 0 " + size + " " + size + "\""));
+        // the top-left finder pattern starts at the quiet zone as a 7-module run
+        assertTrue(svg.contains("M4 4h7v1h-7z"));
+    }
+}
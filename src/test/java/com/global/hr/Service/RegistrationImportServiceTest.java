@@ -0,0 +1,146 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.global.hr.DTO.RegistrationImportResponse;
+import com.global.hr.DTO.RegistrationImportRow;
+import com.global.hr.Entity.Event;
+import com.global.hr.Entity.User;
+import com.global.hr.Repo.EventRepo;
+import com.global.hr.Repo.RegistrationRepo;
+import com.global.hr.Repo.UserRepo;
+
+/**
+ * Runs outside a test transaction: every chunk commits (or rolls back) on its
+ * own, and listeners only hear about the chunks that committed.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=false",
+    "import.chunk-size=2"
+})
+class RegistrationImportServiceTest {
+
+    // hashing this password signs dora up behind the import's back
+    private static final String RACING_PASSWORD = "race";
+
+    @Autowired private RegistrationImportService importService;
+    @Autowired private EventRepo eventRepo;
+    @Autowired private UserRepo userRepo;
+    @Autowired private RegistrationRepo registrationRepo;
+    @Autowired private RegistrationCodeCache codeCache;
+    @Autowired private DashboardCounters counters;
+
+    @TestConfiguration
+    static class RacingSignup {
+
+        @Bean
+        @Primary
+        PasswordEncoder racingPasswordEncoder(JdbcTemplate jdbcTemplate) {
+            BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    // between the chunk's email lookup and its insert, like a concurrent signup
+                    if (RACING_PASSWORD.contentEquals(rawPassword)) {
+                        jdbcTemplate.update("insert into users (id, email, name, password) values (1000000, 'dora@example.com', 'Dora', 'x')");
+                    }
+                    return bcrypt.encode(rawPassword);
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    return bcrypt.matches(rawPassword, encodedPassword);
+                }
+            };
+        }
+    }
+
+    @Test
+    void reportsAnOutcomePerRow() throws Exception {
+        Event event = eventRepo.save(new Event("import", LocalDateTime.now(), LocalDateTime.now().plusHours(2)));
+        User ann = new User();
+        ann.setEmail("ann@example.com");
+        ann.setName("Ann");
+        ann.setPassword("x");
+        userRepo.save(ann);
+
+        String csv = "email,name,password\n" +
+                     "ann@example.com,Ann,\n" +
+                     "bob@example.com,Bob,secret\n" +
+                     "BOB@example.com,Bob again,secret\n" +
+                     "carl@example.com,Carl,\n" +
+                     "not-an-email,X,y\n";
+        RegistrationImportResponse response = importService.importCsv(event.getId(), new StringReader(csv));
+
+        List<RegistrationImportRow> rows = response.getRows();
+        assertEquals(5, rows.size());
+        assertEquals("REGISTERED", rows.get(0).getOutcome());
+        assertNotNull(rows.get(0).getRegistrationId());
+        assertEquals("USER_CREATED", rows.get(1).getOutcome());
+        assertEquals("DUPLICATE", rows.get(2).getOutcome());
+        assertEquals("ERROR", rows.get(3).getOutcome());
+        assertEquals("ERROR", rows.get(4).getOutcome());
+        assertEquals(6, rows.get(4).getRow());
+        assertEquals(1, response.getUsersCreated());
+        assertEquals(2, response.getRegistered());
+        assertEquals(2, registrationRepo.countByEvent_Id(event.getId()));
+
+        RegistrationImportResponse again = importService.importCsv(event.getId(),
+            new StringReader("email\nann@example.com\n"));
+        assertEquals("ALREADY_REGISTERED", again.getRows().get(0).getOutcome());
+    }
+
+    @Test
+    void commitsEachChunkAndRollsBackOnlyTheConflictingOne() throws Exception {
+        Event event = eventRepo.save(new Event("import race", LocalDateTime.now(), LocalDateTime.now().plusHours(2)));
+        long registrationsBefore = counters.stats().getTotalRegistrations();
+
+        // chunks of two: [gus, hal] [dora, eve] [fay]
+        String csv = "email,name,password\n" +
+                     "gus@example.com,Gus,secret\n" +
+                     "hal@example.com,Hal,secret\n" +
+                     "dora@example.com,Dora," + RACING_PASSWORD + "\n" +
+                     "eve@example.com,Eve,secret\n" +
+                     "fay@example.com,Fay,secret\n";
+        RegistrationImportResponse response = importService.importCsv(event.getId(), new StringReader(csv));
+
+        List<RegistrationImportRow> rows = response.getRows();
+        assertEquals(5, rows.size());
+        assertEquals("USER_CREATED", rows.get(0).getOutcome());
+        assertEquals("USER_CREATED", rows.get(1).getOutcome());
+        assertEquals("ERROR", rows.get(2).getOutcome());
+        assertEquals("ERROR", rows.get(3).getOutcome());
+        assertEquals("USER_CREATED", rows.get(4).getOutcome());
+        assertEquals(3, response.getRegistered());
+
+        // the conflicting chunk left nothing behind, the others committed
+        assertEquals(3, registrationRepo.countByEvent_Id(event.getId()));
+        assertTrue(userRepo.findByEmail("eve@example.com").isEmpty());
+
+        // listeners ran after each commit, and only for what was committed
+        String gusCode = registrationRepo.findById(rows.get(0).getRegistrationId()).orElseThrow().getCode();
+        assertTrue(codeCache.mightBeValid(gusCode));
+        assertEquals(registrationsBefore + 3, counters.stats().getTotalRegistrations());
+    }
+}
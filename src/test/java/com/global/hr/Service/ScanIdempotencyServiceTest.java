@@ -0,0 +1,50 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.global.hr.DTO.AttendanceDtoResponse;
+import com.global.hr.Entity.AttendanceEventType;
+import com.global.hr.exception.IdempotencyKeyConflictException;
+
+/**
+ * Runs outside a test transaction: each record commits on its own, like two
+ * requests racing for one key.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=false"
+})
+class ScanIdempotencyServiceTest {
+
+    @Autowired private ScanIdempotencyService idempotencyService;
+
+    @Test
+    void losingARaceForAKeyReplaysTheWinnerOrConflicts() {
+        idempotencyService.record("door-1", "code-a", new AttendanceDtoResponse(0.5, 7L, AttendanceEventType.CHECKIN));
+
+        // the second insert of the key fails at record time, not at some later commit
+        DataIntegrityViolationException lost = assertThrows(DataIntegrityViolationException.class, () ->
+            idempotencyService.record("door-1", "code-b", new AttendanceDtoResponse(0, 8L, AttendanceEventType.CHECKIN)));
+
+        AttendanceDtoResponse replay = idempotencyService.resolveConflict("door-1", "code-a", lost);
+        assertEquals(7L, replay.getRegistrationId());
+        assertEquals(0.5, replay.getCreditHours(), 1e-9);
+        assertThrows(IdempotencyKeyConflictException.class, () ->
+            idempotencyService.resolveConflict("door-1", "code-b", lost));
+
+        // a violation that had nothing to do with the key is not swallowed
+        assertSame(lost, assertThrows(DataIntegrityViolationException.class, () ->
+            idempotencyService.resolveConflict("door-2", "code-a", lost)));
+    }
+}
@@ -0,0 +1,128 @@
+package com.global.hr.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class WriteBehindQueueTest {
+
+	@Test
+	void flushesEverythingInArrivalOrderAndWithinBatchSize() {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 2000, 50, 5, 100, batch -> {
+			batchSizes.add(batch.size());
+			written.addAll(batch);
+		});
+		queue.start();
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(queue.offer(i));
+		}
+		queue.stop();
+
+		assertEquals(1000, written.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, written.get(i));
+		}
+		assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+	}
+
+	@Test
+	void rejectsWhenFullAndFlushesQueuedItemsOnStop() throws InterruptedException {
+		CountDownLatch writerBusy = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 2, 1, 5, 10, batch -> {
+			writerBusy.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			written.addAll(batch);
+		});
+		queue.start();
+
+		assertTrue(queue.offer(1));
+		assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+		// writer is stuck on item 1, so the queue holds exactly two more
+		assertTrue(queue.offer(2));
+		assertTrue(queue.offer(3));
+		assertFalse(queue.offer(4));
+
+		release.countDown();
+		queue.stop();
+
+		assertEquals(List.of(1, 2, 3), written);
+		assertEquals(0, queue.pending());
+		assertFalse(queue.offer(5));
+	}
+
+	@Test
+	void retriesAFailedBatch() {
+		AtomicInteger attempts = new AtomicInteger();
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 10, 10, 5, 100, batch -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("database unavailable");
+			}
+			written.addAll(batch);
+		});
+		queue.start();
+		assertTrue(queue.offer(42));
+		queue.stop();
+
+		assertEquals(List.of(42), written);
+		assertTrue(attempts.get() >= 2);
+	}
+
+	@Test
+	void writesAFailingBatchItemByItemAndDropsOnlyTheBadItems() {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> dropped = Collections.synchronizedList(new ArrayList<>());
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 10, 10, 5, 100, batch -> {
+			if (batch.contains(13)) {
+				throw new IllegalStateException("foreign key violation");
+			}
+			written.addAll(batch);
+		}, dropped::add);
+		queue.start();
+		for (int i = 10; i < 16; i++) {
+			assertTrue(queue.offer(i));
+		}
+		queue.stop();
+
+		assertEquals(List.of(10, 11, 12, 14, 15), written);
+		assertEquals(List.of(13), dropped);
+	}
+
+	@Test
+	void dropsLaterItemsOfTheGroupOfADroppedItem() {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> dropped = Collections.synchronizedList(new ArrayList<>());
+		// the tens digit is the group: 11 fails, so 12 and 13 build on a state that was never written
+		WriteBehindQueue<Integer> queue = new WriteBehindQueue<>("test", 10, 10, 5, 100, batch -> {
+			if (batch.contains(11)) {
+				throw new IllegalStateException("foreign key violation");
+			}
+			written.addAll(batch);
+		}, dropped::add, item -> item / 10);
+		queue.start();
+		for (int item : List.of(10, 20, 11, 21, 12, 22, 13)) {
+			assertTrue(queue.offer(item));
+		}
+		queue.stop();
+
+		assertEquals(List.of(10, 20, 21, 22), written);
+		assertEquals(List.of(11, 12, 13), dropped);
+	}
+}